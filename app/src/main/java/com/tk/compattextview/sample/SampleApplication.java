@@ -0,0 +1,14 @@
+package com.tk.compattextview.sample;
+
+import android.app.Application;
+
+import com.tk.compattextview.SpecRegistry;
+
+public class SampleApplication extends Application {
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        //编译期生成的Spec , 在任何布局加载之前注册 , 布局加载时不再解析ctv_*属性
+        SpecRegistry.register(new CompatTextViewSpecs());
+    }
+}
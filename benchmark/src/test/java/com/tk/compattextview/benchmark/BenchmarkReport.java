@@ -0,0 +1,105 @@
+package com.tk.compattextview.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 输出与JMH -rf json格式相近的报告 , 便于不同版本之间对比 :
+ *              primaryMetric为ns/op , secondaryMetrics中的gc.alloc.rate.norm为B/op
+ * </pre>
+ */
+final class BenchmarkReport {
+    private static final List<BenchmarkRunner.Result> RESULTS = new ArrayList<>();
+
+    private BenchmarkReport() {
+        throw new IllegalStateException();
+    }
+
+    static synchronized void add(BenchmarkRunner.Result result) {
+        System.out.println(result);
+        RESULTS.add(result);
+    }
+
+    /**
+     * 写入系统属性benchmark.report指定的文件 , 未指定时不输出
+     *
+     * @throws IOException
+     */
+    static synchronized void write() throws IOException {
+        String path = System.getProperty("benchmark.report");
+        if (null == path || RESULTS.isEmpty()) {
+            return;
+        }
+        File file = new File(path);
+        File parent = file.getParentFile();
+        if (null != parent && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("mkdirs failed: " + parent);
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(toJson());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"version\": ").append(quote(System.getProperty("benchmark.version", ""))).append(",\n");
+        sb.append("  \"timestamp\": ").append(System.currentTimeMillis()).append(",\n");
+        sb.append("  \"jvm\": ").append(quote(System.getProperty("java.vm.name") + " " + System.getProperty("java.version"))).append(",\n");
+        sb.append("  \"benchmarks\": [\n");
+        for (int i = 0, size = RESULTS.size(); i < size; i++) {
+            BenchmarkRunner.Result r = RESULTS.get(i);
+            sb.append("    {\n");
+            sb.append("      \"benchmark\": ").append(quote(r.name)).append(",\n");
+            sb.append("      \"mode\": \"avgt\",\n");
+            sb.append("      \"warmupIterations\": ").append(BenchmarkRunner.warmupIterations()).append(",\n");
+            sb.append("      \"measurementIterations\": ").append(BenchmarkRunner.measurementIterations()).append(",\n");
+            sb.append("      \"opsPerIteration\": ").append(r.opsPerIteration).append(",\n");
+            sb.append("      \"primaryMetric\": {\n");
+            sb.append("        \"score\": ").append(number(r.score)).append(",\n");
+            sb.append("        \"scoreError\": ").append(number(r.scoreError)).append(",\n");
+            sb.append("        \"scoreUnit\": \"ns/op\",\n");
+            sb.append("        \"scorePercentiles\": {\"0.0\": ").append(number(r.min))
+                    .append(", \"50.0\": ").append(number(r.p50))
+                    .append(", \"90.0\": ").append(number(r.p90))
+                    .append(", \"100.0\": ").append(number(r.max)).append("},\n");
+            sb.append("        \"rawData\": [");
+            for (int j = 0; j < r.samples.length; j++) {
+                if (j > 0) {
+                    sb.append(", ");
+                }
+                sb.append(number(r.samples[j]));
+            }
+            sb.append("]\n");
+            sb.append("      },\n");
+            sb.append("      \"secondaryMetrics\": {\n");
+            sb.append("        \"gc.alloc.rate.norm\": {\"score\": ").append(number(r.allocBytesPerOp))
+                    .append(", \"scoreUnit\": \"B/op\"}\n");
+            sb.append("      }\n");
+            sb.append(i == size - 1 ? "    }\n" : "    },\n");
+        }
+        sb.append("  ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.US, "%.3f", value);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
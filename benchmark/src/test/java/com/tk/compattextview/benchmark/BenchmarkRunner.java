@@ -0,0 +1,146 @@
+package com.tk.compattextview.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 仿JMH的测量工具 , 预热若干轮后测量若干轮 , 每轮执行固定次数的操作 ,
+ *              统计每次操作的平均耗时(ns/op)和分配的字节数(B/op)
+ * </pre>
+ */
+final class BenchmarkRunner {
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 5);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 10);
+
+    private BenchmarkRunner() {
+        throw new IllegalStateException();
+    }
+
+    interface Op {
+        /**
+         * @param i 本轮中的第几次操作 , 用于交替状态等
+         * @throws Exception
+         */
+        void run(int i) throws Exception;
+    }
+
+    /**
+     * 测量并记录到{@link BenchmarkReport}
+     *
+     * @param name            报告中的名称
+     * @param opsPerIteration 每轮执行的操作次数
+     * @param op
+     * @return
+     * @throws Exception
+     */
+    static Result measure(String name, int opsPerIteration, Op op) throws Exception {
+        for (int w = 0; w < WARMUP; w++) {
+            for (int i = 0; i < opsPerIteration; i++) {
+                op.run(i);
+            }
+        }
+        System.gc();
+        final double[] samples = new double[ITERATIONS];
+        long allocated = 0;
+        boolean allocSupported = true;
+        for (int it = 0; it < ITERATIONS; it++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < opsPerIteration; i++) {
+                op.run(i);
+            }
+            long end = System.nanoTime();
+            long afterBytes = allocatedBytes();
+            samples[it] = (end - start) / (double) opsPerIteration;
+            if (bytes < 0 || afterBytes < 0) {
+                allocSupported = false;
+            } else {
+                allocated += afterBytes - bytes;
+            }
+        }
+        Result result = new Result(name, opsPerIteration, samples,
+                allocSupported ? allocated / (double) (ITERATIONS * opsPerIteration) : -1);
+        BenchmarkReport.add(result);
+        return result;
+    }
+
+    /**
+     * 当前线程累计分配的字节数 , JVM不支持时返回-1
+     *
+     * @return
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    static final class Result {
+        final String name;
+        final int opsPerIteration;
+        /**
+         * 每轮的ns/op
+         */
+        final double[] samples;
+        final double score;
+        final double scoreError;
+        final double min;
+        final double max;
+        final double p50;
+        final double p90;
+        /**
+         * B/op , 不支持时为-1
+         */
+        final double allocBytesPerOp;
+
+        Result(String name, int opsPerIteration, double[] samples, double allocBytesPerOp) {
+            this.name = name;
+            this.opsPerIteration = opsPerIteration;
+            this.samples = samples;
+            this.allocBytesPerOp = allocBytesPerOp;
+            double sum = 0;
+            for (double sample : samples) {
+                sum += sample;
+            }
+            score = sum / samples.length;
+            double variance = 0;
+            for (double sample : samples) {
+                variance += (sample - score) * (sample - score);
+            }
+            scoreError = samples.length > 1 ? Math.sqrt(variance / (samples.length - 1)) : 0;
+            double[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            min = sorted[0];
+            max = sorted[sorted.length - 1];
+            p50 = percentile(sorted, 0.5);
+            p90 = percentile(sorted, 0.9);
+        }
+
+        private static double percentile(double[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %12.1f ± %8.1f ns/op %10.1f B/op", name, score, scoreError, allocBytesPerOp);
+        }
+    }
+
+    static int warmupIterations() {
+        return WARMUP;
+    }
+
+    static int measurementIterations() {
+        return ITERATIONS;
+    }
+}
@@ -0,0 +1,266 @@
+package com.tk.compattextview.benchmark;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.StateListDrawable;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import com.tk.compattextview.BackgroundCache;
+import com.tk.compattextview.CompatTextView;
+import com.tk.compattextview.CompatTextViewSpec;
+import com.tk.compattextview.ShaderCache;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : CompatTextView的基准测试 , Robolectric下Canvas的绘制是模拟实现 ,
+ *              draw相关的耗时只代表Java层开销 , 分配字节数(B/op)的参考价值更高
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class CompatTextViewBenchmark {
+    /**
+     * 在调用线程直接执行 , 用于同步测量prefetch
+     */
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private static final int[] LAYOUTS = {
+            R.layout.bench_plain,
+            R.layout.bench_solid,
+            R.layout.bench_gradient,
+            R.layout.bench_drawable,
+            R.layout.bench_full};
+    private static final String[] NAMES = {"plain", "solid", "gradient", "drawable", "full"};
+
+    private Context mContext;
+    private LayoutInflater mInflater;
+
+    @Before
+    public void setUp() {
+        mContext = new ContextThemeWrapper(RuntimeEnvironment.application, R.style.BenchTheme);
+        mInflater = LayoutInflater.from(mContext);
+    }
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        BenchmarkReport.write();
+    }
+
+    @Test
+    public void inflate() throws Exception {
+        for (int index = 0; index < LAYOUTS.length; index++) {
+            final int layout = LAYOUTS[index];
+            BenchmarkRunner.measure("inflate." + NAMES[index], 200, new BenchmarkRunner.Op() {
+                @Override
+                public void run(int i) {
+                    mInflater.inflate(layout, null, false);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void inflateCold() throws Exception {
+        BenchmarkRunner.measure("inflate.full.cold", 100, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                clearCaches();
+                mInflater.inflate(R.layout.bench_full, null, false);
+            }
+        });
+    }
+
+    @Test
+    public void processBackgroundDrawable() throws Exception {
+        final CompatTextView view = inflate(R.layout.bench_full);
+        //涟漪模式下setEnabled总会重新选择背景 , 状态不变时即为processBackgroundDrawable()的开销
+        BenchmarkRunner.measure("background.process", 2000, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                view.setEnabled(true);
+            }
+        });
+        final CompatTextViewSpec spec = view.getSpec();
+        BenchmarkRunner.measure("background.prefetch.cached", 2000, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                CompatTextView.prefetch(mContext, spec, DIRECT);
+            }
+        });
+        BenchmarkRunner.measure("background.prefetch.cold", 500, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                BackgroundCache.clear();
+                ShaderCache.clear();
+                CompatTextView.prefetch(mContext, spec, DIRECT);
+            }
+        });
+    }
+
+    /**
+     * 与1.3版本的StateListDrawable + GradientDrawable方案对比 , 配置与bench_gradient一致
+     */
+    @Test
+    public void backgroundVersusStateList() throws Exception {
+        final CompatTextView view = inflate(R.layout.bench_gradient);
+        final CompatTextViewSpec spec = view.getSpec();
+        BenchmarkRunner.measure("background.build.shape", 500, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                BackgroundCache.clear();
+                ShaderCache.clear();
+                CompatTextView.prefetch(mContext, spec, DIRECT);
+            }
+        });
+        BenchmarkRunner.measure("background.build.stateList", 500, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                legacyStateList(view.getResources().getDisplayMetrics().density);
+            }
+        });
+
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(300, 100, Bitmap.Config.ARGB_8888));
+        final int[] pressed = {android.R.attr.state_enabled, android.R.attr.state_pressed};
+        final int[] normal = {android.R.attr.state_enabled};
+        //不可点击 , 背景即为StateList方式的CompatShapeDrawable , 从View上取下后单独绘制
+        final Drawable shape = view.getBackground();
+        view.setBackgroundDrawable(null);
+        assertNotNull(shape);
+        final Drawable stateList = legacyStateList(view.getResources().getDisplayMetrics().density);
+        shape.setBounds(0, 0, 300, 100);
+        stateList.setBounds(0, 0, 300, 100);
+        BenchmarkRunner.measure("background.toggleDraw.shape", 2000, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                shape.setState(i % 2 == 0 ? pressed : normal);
+                shape.draw(canvas);
+            }
+        });
+        BenchmarkRunner.measure("background.toggleDraw.stateList", 2000, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                stateList.setState(i % 2 == 0 ? pressed : normal);
+                stateList.draw(canvas);
+            }
+        });
+    }
+
+    @Test
+    public void toggle() throws Exception {
+        final CompatTextView view = inflate(R.layout.bench_full);
+        layout(view);
+        BenchmarkRunner.measure("toggle.selected", 2000, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                view.setSelected(i % 2 == 0);
+            }
+        });
+        BenchmarkRunner.measure("toggle.enabled", 2000, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                view.setEnabled(i % 2 != 0);
+            }
+        });
+        view.setEnabled(true);
+        BenchmarkRunner.measure("toggle.pressed", 2000, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                view.setPressed(i % 2 == 0);
+            }
+        });
+    }
+
+    @Test
+    public void offsetDrawable() throws Exception {
+        final CompatTextView view = inflate(R.layout.bench_drawable);
+        layout(view);
+        final int width = view.getWidth();
+        final int height = view.getHeight();
+        //尺寸和Layout不变 , onLayout中的offsetDrawable()走快速路径
+        BenchmarkRunner.measure("offsetDrawable.skip", 5000, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                view.layout(0, 0, width, height);
+            }
+        });
+        //只有对齐方式不同 , bind时不重新布局 , 直接完整计算偏移
+        final CompatTextViewSpec top = view.getSpec();
+        final CompatTextViewSpec center = view.edit()
+                .setDrawableAlign(CompatTextViewSpec.LEFT, CompatTextViewSpec.ALIGN_CENTER)
+                .build();
+        BenchmarkRunner.measure("offsetDrawable.full", 5000, new BenchmarkRunner.Op() {
+            @Override
+            public void run(int i) {
+                view.bind(i % 2 == 0 ? center : top);
+            }
+        });
+    }
+
+    private CompatTextView inflate(int layout) {
+        CompatTextView view = (CompatTextView) mInflater.inflate(layout, null, false);
+        assertNotNull(view);
+        return view;
+    }
+
+    private static void layout(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(600, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    private static void clearCaches() {
+        CompatTextView.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+
+    /**
+     * 1.3版本的背景 : 每种状态一个GradientDrawable
+     *
+     * @param density
+     * @return
+     */
+    private static Drawable legacyStateList(float density) {
+        final float r = 16 * density;
+        final float[] radii = {r, r, r, r, r, r, r, r};
+        final int stroke = (int) density;
+        GradientDrawable normal = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT,
+                new int[]{Color.parseColor("#FFC107"), Color.parseColor("#FF5722")});
+        normal.setCornerRadii(radii);
+        normal.setStroke(stroke, Color.parseColor("#FF9800"));
+        GradientDrawable pressed = new GradientDrawable(GradientDrawable.Orientation.LEFT_RIGHT,
+                new int[]{Color.parseColor("#FFA000"), Color.parseColor("#E64A19")});
+        pressed.setCornerRadii(radii);
+        pressed.setStroke(stroke, Color.parseColor("#FF9800"));
+        StateListDrawable drawable = new StateListDrawable();
+        drawable.addState(new int[]{android.R.attr.state_pressed}, pressed);
+        drawable.addState(new int[]{}, normal);
+        drawable.setEnterFadeDuration(200);
+        drawable.setExitFadeDuration(200);
+        return drawable;
+    }
+}
@@ -0,0 +1,327 @@
+package com.tk.compattextview.generator;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 扫描res目录下的styles和layout , 为配置了ctv_*属性的style和CompatTextView
+ *              生成SpecRegistry.Provider , 运行时按style或android:id直接获取Spec
+ *
+ *              java -cp generator.jar com.tk.compattextview.generator.SpecGenerator
+ *                   --package com.example --out build/generated/source/ctv src/main/res
+ * </pre>
+ */
+public final class SpecGenerator {
+    static final String CLASS_NAME = "CompatTextViewSpecs";
+    private static final String VIEW_CLASS = "com.tk.compattextview.CompatTextView";
+    private static final String ANDROID_NS = "http://schemas.android.com/apk/res/android";
+
+    /**
+     * style name -> (values目录 , parent , ctv_*属性)
+     */
+    private final Map<String, StyleDecl> mStyles = new TreeMap<>();
+    /**
+     * id name -> ctv_*属性 , null表示多个布局中的配置不一致
+     */
+    private final Map<String, Map<String, String>> mViews = new TreeMap<>();
+    private final Set<String> mWarnings = new LinkedHashSet<>();
+
+    public static void main(String[] args) throws Exception {
+        String packageName = null;
+        File out = null;
+        List<File> resDirs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--package".equals(args[i])) {
+                packageName = args[++i];
+            } else if ("--out".equals(args[i])) {
+                out = new File(args[++i]);
+            } else {
+                resDirs.add(new File(args[i]));
+            }
+        }
+        if (null == packageName || null == out || resDirs.isEmpty()) {
+            System.err.println("usage: SpecGenerator --package <R package> --out <dir> <res dir>...");
+            System.exit(1);
+            return;
+        }
+        SpecGenerator generator = new SpecGenerator();
+        for (File resDir : resDirs) {
+            generator.scan(resDir);
+        }
+        String source = generator.generate(packageName);
+        for (String warning : generator.getWarnings()) {
+            System.out.println("CompatTextView: " + warning);
+        }
+        File dir = new File(out, packageName.replace('.', File.separatorChar));
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("mkdirs failed: " + dir);
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(new File(dir, CLASS_NAME + ".java")), "UTF-8");
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 扫描一个res目录
+     *
+     * @param resDir
+     * @throws Exception
+     */
+    public void scan(File resDir) throws Exception {
+        File[] dirs = resDir.listFiles();
+        if (null == dirs) {
+            return;
+        }
+        Arrays.sort(dirs);
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        for (File dir : dirs) {
+            boolean values = dir.getName().equals("values") || dir.getName().startsWith("values-");
+            boolean layout = dir.getName().equals("layout") || dir.getName().startsWith("layout-");
+            if (!values && !layout) {
+                continue;
+            }
+            File[] files = dir.listFiles();
+            if (null == files) {
+                continue;
+            }
+            Arrays.sort(files);
+            for (File file : files) {
+                if (!file.getName().endsWith(".xml")) {
+                    continue;
+                }
+                Document document = builder.parse(file);
+                if (values) {
+                    scanStyles(dir.getName(), document);
+                } else {
+                    scanLayout(file, document.getDocumentElement());
+                }
+            }
+        }
+    }
+
+    public Set<String> getWarnings() {
+        return mWarnings;
+    }
+
+    /**
+     * 生成Provider的源码
+     *
+     * @param packageName R所在的包名
+     * @return
+     */
+    public String generate(String packageName) {
+        SpecWriter writer = new SpecWriter(packageName);
+        for (String name : mStyles.keySet()) {
+            Map<String, String> attrs;
+            try {
+                attrs = resolveStyle(name, new HashSet<String>());
+            } catch (UnsupportedException e) {
+                //没有ctv_*属性的style(如主题)不需要提示
+                if (declaresAttributes(name, new HashSet<String>())) {
+                    mWarnings.add("style/" + name + " : " + e.getMessage() + " , fallback to runtime parsing");
+                }
+                continue;
+            }
+            if (!attrs.isEmpty()) {
+                add(writer, "R.style." + javaName(name), false, "style/" + name, attrs);
+            }
+        }
+        for (Map.Entry<String, Map<String, String>> entry : mViews.entrySet()) {
+            if (null == entry.getValue()) {
+                mWarnings.add("id/" + entry.getKey() + " : different ctv_* attributes in layouts , fallback to runtime parsing");
+                continue;
+            }
+            add(writer, "R.id." + javaName(entry.getKey()), true, "id/" + entry.getKey(), entry.getValue());
+        }
+        return writer.toSource();
+    }
+
+    private void add(SpecWriter writer, String id, boolean inline, String comment, Map<String, String> attrs) {
+        try {
+            writer.add(id, inline, comment, attrs);
+        } catch (UnsupportedException e) {
+            mWarnings.add(comment + " : " + e.getMessage() + " , fallback to runtime parsing");
+        }
+    }
+
+    private void scanStyles(String qualifier, Document document) {
+        NodeList styles = document.getDocumentElement().getElementsByTagName("style");
+        for (int i = 0; i < styles.getLength(); i++) {
+            Element style = (Element) styles.item(i);
+            String name = style.getAttribute("name");
+            String parent = null;
+            if (style.hasAttribute("parent")) {
+                parent = style.getAttribute("parent");
+                parent = parent.replace("@style/", "").replace("style/", "");
+                if (parent.isEmpty() || parent.startsWith("@android:")) {
+                    parent = null;
+                }
+            } else if (name.contains(".")) {
+                //隐式继承
+                parent = name.substring(0, name.lastIndexOf('.'));
+            }
+            Map<String, String> attrs = new LinkedHashMap<>();
+            NodeList items = style.getElementsByTagName("item");
+            for (int j = 0; j < items.getLength(); j++) {
+                Element item = (Element) items.item(j);
+                String attr = item.getAttribute("name");
+                if (attr.startsWith("app:")) {
+                    attr = attr.substring(4);
+                }
+                if (attr.startsWith("ctv_")) {
+                    attrs.put(attr, item.getTextContent().trim());
+                }
+            }
+            StyleDecl old = mStyles.get(name);
+            if (null != old && !old.qualifier.equals(qualifier)) {
+                //不同限定符下的同名style , 编译期无法确定使用哪一个
+                old.ambiguous = true;
+                old.attrs.putAll(attrs);
+            } else {
+                mStyles.put(name, new StyleDecl(qualifier, parent, attrs));
+            }
+        }
+    }
+
+    /**
+     * 合并继承链上的ctv_*属性 , parent不在扫描范围内(如其他模块、AppCompat)时无法确定其中的ctv_*属性 ,
+     * 整体放弃 , 由运行时解析
+     *
+     * @param name
+     * @param visiting
+     * @return
+     * @throws UnsupportedException
+     */
+    private Map<String, String> resolveStyle(String name, Set<String> visiting) throws UnsupportedException {
+        StyleDecl decl = mStyles.get(name);
+        if (null == decl) {
+            throw new UnsupportedException("parent " + name + " is not in scanned res dirs");
+        }
+        if (decl.ambiguous) {
+            throw new UnsupportedException("declared in multiple resource qualifiers");
+        }
+        if (!visiting.add(name)) {
+            throw new UnsupportedException("cyclic parent");
+        }
+        Map<String, String> attrs = null == decl.parent
+                ? new LinkedHashMap<String, String>()
+                : resolveStyle(decl.parent, visiting);
+        attrs.putAll(decl.attrs);
+        return attrs;
+    }
+
+    /**
+     * 继承链上已扫描的部分是否声明了ctv_*属性
+     */
+    private boolean declaresAttributes(String name, Set<String> visiting) {
+        StyleDecl decl = mStyles.get(name);
+        if (null == decl || !visiting.add(name)) {
+            return false;
+        }
+        return !decl.attrs.isEmpty() || (null != decl.parent && declaresAttributes(decl.parent, visiting));
+    }
+
+    private void scanLayout(File file, Element element) {
+        if (VIEW_CLASS.equals(element.getTagName()) && !element.hasAttribute("style")) {
+            Map<String, String> attrs = new TreeMap<>();
+            String id = null;
+            NamedNodeMap map = element.getAttributes();
+            for (int i = 0; i < map.getLength(); i++) {
+                Attr attr = (Attr) map.item(i);
+                String localName = null == attr.getLocalName() ? attr.getName() : attr.getLocalName();
+                if (ANDROID_NS.equals(attr.getNamespaceURI())) {
+                    if ("id".equals(localName)) {
+                        id = attr.getValue().replace("@+id/", "").replace("@id/", "");
+                    }
+                } else if (localName.startsWith("ctv_")) {
+                    attrs.put(localName, attr.getValue().trim());
+                }
+            }
+            if (null == id) {
+                if (!attrs.isEmpty()) {
+                    mWarnings.add(file.getName() + " : CompatTextView without android:id , fallback to runtime parsing");
+                }
+            } else if (!attrs.isEmpty()) {
+                if (mViews.containsKey(id)) {
+                    Map<String, String> old = mViews.get(id);
+                    if (null != old && !old.equals(attrs)) {
+                        mViews.put(id, null);
+                    }
+                } else {
+                    mViews.put(id, attrs);
+                }
+            }
+        }
+        NodeList children = element.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node child = children.item(i);
+            if (child instanceof Element) {
+                scanLayout(file, (Element) child);
+            }
+        }
+    }
+
+    /**
+     * 资源名转换为R中的字段名
+     *
+     * @param name
+     * @return
+     */
+    static String javaName(String name) {
+        return name.replace('.', '_').replace('-', '_');
+    }
+
+    private static final class StyleDecl {
+        final String qualifier;
+        final String parent;
+        final Map<String, String> attrs;
+        boolean ambiguous;
+
+        StyleDecl(String qualifier, String parent, Map<String, String> attrs) {
+            this.qualifier = qualifier;
+            this.parent = parent;
+            this.attrs = attrs;
+        }
+    }
+
+    /**
+     * 编译期无法确定的配置 , 交给运行时解析
+     */
+    static final class UnsupportedException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedException(String message) {
+            super(message);
+        }
+    }
+}
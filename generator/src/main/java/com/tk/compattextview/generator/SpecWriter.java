@@ -0,0 +1,542 @@
+package com.tk.compattextview.generator;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 将ctv_*属性转换为CompatTextViewSpec.Builder的调用 , 默认值与运行时解析保持一致
+ * </pre>
+ */
+final class SpecWriter {
+    private static final String[] STATES = {"", "Pressed", "Selected", "Disabled"};
+    private static final String[] STATE_CONSTANTS = {"STATE_DEFAULT", "STATE_PRESSED", "STATE_SELECTED", "STATE_DISABLED"};
+    private static final String[] SIDES = {"Left", "Top", "Right", "Bottom"};
+    private static final String[] SIDE_CONSTANTS = {"LEFT", "TOP", "RIGHT", "BOTTOM"};
+    private static final String[] STATE_COLORS = {"ctv_stroke", "ctv_solid", "ctv_gradientStart", "ctv_gradientCenter",
+            "ctv_gradientEnd", "ctv_text", "ctv_badge"};
+
+    private static final Pattern COLOR = Pattern.compile("#([0-9a-fA-F]{3,4}|[0-9a-fA-F]{6}|[0-9a-fA-F]{8})");
+    private static final Pattern DIMENSION = Pattern.compile("(-?\\d+(?:\\.\\d+)?)(dp|dip|sp|px|pt|in|mm)");
+    private static final Pattern INTEGER = Pattern.compile("-?\\d+");
+    private static final Pattern REFERENCE = Pattern.compile("@(android:)?(\\w+)/([\\w.]+)");
+
+    private static final Map<String, String> UNITS = new HashMap<>();
+    /**
+     * TypedValue#coerceToString中的单位
+     */
+    private static final Map<String, String> COMPILED_UNITS = new HashMap<>();
+    private static final Map<String, Integer> DIRECTIONS = new HashMap<>();
+    private static final Map<String, Integer> ALIGNS = new HashMap<>();
+    private static final Map<String, Integer> ANCHORS = new HashMap<>();
+
+    static {
+        UNITS.put("dp", "TypedValue.COMPLEX_UNIT_DIP");
+        UNITS.put("dip", "TypedValue.COMPLEX_UNIT_DIP");
+        UNITS.put("sp", "TypedValue.COMPLEX_UNIT_SP");
+        UNITS.put("px", "TypedValue.COMPLEX_UNIT_PX");
+        UNITS.put("pt", "TypedValue.COMPLEX_UNIT_PT");
+        UNITS.put("in", "TypedValue.COMPLEX_UNIT_IN");
+        UNITS.put("mm", "TypedValue.COMPLEX_UNIT_MM");
+
+        COMPILED_UNITS.put("dp", "dip");
+        COMPILED_UNITS.put("dip", "dip");
+        COMPILED_UNITS.put("sp", "sp");
+        COMPILED_UNITS.put("px", "px");
+        COMPILED_UNITS.put("pt", "pt");
+        COMPILED_UNITS.put("in", "in");
+        COMPILED_UNITS.put("mm", "mm");
+
+        DIRECTIONS.put("topToBottom", 0);
+        DIRECTIONS.put("leftToRight", 1);
+        DIRECTIONS.put("topLeftToBottomRight", 2);
+        DIRECTIONS.put("bottomLeftToTopRight", 3);
+
+        ALIGNS.put("top", 0);
+        ALIGNS.put("left", 0);
+        ALIGNS.put("center", 1);
+        ALIGNS.put("bottom", 2);
+        ALIGNS.put("right", 2);
+
+        ANCHORS.put("left", 0);
+        ANCHORS.put("top", 1);
+        ANCHORS.put("right", 2);
+        ANCHORS.put("bottom", 3);
+        ANCHORS.put("topLeft", 4);
+        ANCHORS.put("topRight", 5);
+        ANCHORS.put("bottomRight", 6);
+        ANCHORS.put("bottomLeft", 7);
+    }
+
+    private final String mPackageName;
+    private final StringBuilder mIndex = new StringBuilder();
+    private final StringBuilder mFingerprints = new StringBuilder();
+    private final StringBuilder mCases = new StringBuilder();
+    private final StringBuilder mMethods = new StringBuilder();
+    private int mCount;
+
+    SpecWriter(String packageName) {
+        mPackageName = packageName;
+    }
+
+    /**
+     * 生成一个Spec工厂方法 , 含有无法转换的属性时整体放弃
+     *
+     * @param id      R.style.xxx或R.id.xxx
+     * @param inline  布局中内联的属性 , 运行时按属性名和值的指纹匹配 , style不需要指纹
+     * @param comment
+     * @param attrs
+     * @throws SpecGenerator.UnsupportedException
+     */
+    void add(String id, boolean inline, String comment, Map<String, String> attrs) throws SpecGenerator.UnsupportedException {
+        Set<String> used = new HashSet<>();
+        StringBuilder body = new StringBuilder();
+
+        if (hasAny(attrs, "ctv_radius", "ctv_topLeftRadius", "ctv_topRightRadius", "ctv_bottomRightRadius", "ctv_bottomLeftRadius")) {
+            body.append("        float radius = ").append(dimension(attrs, used, "ctv_radius")).append(";\n");
+            body.append("        if (radius > 0) {\n");
+            body.append("            builder.setRadius(radius);\n");
+            body.append("        } else {\n");
+            body.append("            builder.setRadius(").append(dimension(attrs, used, "ctv_topLeftRadius"))
+                    .append(", ").append(dimension(attrs, used, "ctv_topRightRadius"))
+                    .append(", ").append(dimension(attrs, used, "ctv_bottomRightRadius"))
+                    .append(", ").append(dimension(attrs, used, "ctv_bottomLeftRadius")).append(");\n");
+            body.append("        }\n");
+        }
+        if (attrs.containsKey("ctv_strokeWidth")) {
+            body.append("        builder.setStrokeWidth(").append(offset(attrs, used, "ctv_strokeWidth")).append(");\n");
+        }
+        if (hasAny(attrs, "ctv_strokeColor", "ctv_strokePressedColor", "ctv_strokeSelectedColor", "ctv_strokeDisabledColor")) {
+            //其他状态未配置时与默认状态一致
+            body.append("        builder.setStrokeColor(").append(color(attrs, used, "ctv_strokeColor", "Color.GRAY")).append(");\n");
+            for (int i = 1; i < 4; i++) {
+                String name = "ctv_stroke" + STATES[i] + "Color";
+                if (attrs.containsKey(name)) {
+                    body.append("        builder.setStrokeColor(CompatTextViewSpec.").append(STATE_CONSTANTS[i])
+                            .append(", ").append(color(attrs, used, name, null)).append(");\n");
+                }
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            stateColor(body, attrs, used, "ctv_solid" + STATES[i] + "Color", "setSolidColor", i);
+            stateColor(body, attrs, used, "ctv_text" + STATES[i] + "Color", "setTextColor", i);
+            String start = "ctv_gradientStart" + STATES[i] + "Color";
+            String center = "ctv_gradientCenter" + STATES[i] + "Color";
+            String end = "ctv_gradientEnd" + STATES[i] + "Color";
+            if (hasAny(attrs, start, center, end)) {
+                body.append("        builder.setGradient(CompatTextViewSpec.").append(STATE_CONSTANTS[i])
+                        .append(", ").append(color(attrs, used, start, "CompatTextViewSpec.NONE"))
+                        .append(", ").append(color(attrs, used, center, "CompatTextViewSpec.NONE"))
+                        .append(", ").append(color(attrs, used, end, "CompatTextViewSpec.NONE")).append(");\n");
+            }
+            String direction = "ctv_gradientDirection" + STATES[i];
+            if (attrs.containsKey(direction)) {
+                body.append("        builder.setGradientDirection(CompatTextViewSpec.").append(STATE_CONSTANTS[i])
+                        .append(", ").append(enumValue(attrs, used, direction, DIRECTIONS)).append(");\n");
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            String tint = "ctv_tint" + SIDES[i];
+            if (attrs.containsKey(tint)) {
+                body.append("        builder.setTint(CompatTextViewSpec.").append(SIDE_CONSTANTS[i])
+                        .append(", ").append(color(attrs, used, tint, null)).append(");\n");
+            }
+            String drawable = "ctv_tintDrawable" + SIDES[i];
+            String width = drawable + "Width";
+            String height = drawable + "Height";
+            if (hasAny(attrs, drawable, width, height)) {
+                body.append("        builder.setTintDrawable(CompatTextViewSpec.").append(SIDE_CONSTANTS[i])
+                        .append(", ").append(drawable(attrs, used, drawable))
+                        .append(", ").append(attrs.containsKey(width) ? offset(attrs, used, width) : "CompatTextViewSpec.NONE")
+                        .append(", ").append(attrs.containsKey(height) ? offset(attrs, used, height) : "CompatTextViewSpec.NONE")
+                        .append(");\n");
+            }
+            String align = "ctv_drawable" + SIDES[i] + "Align";
+            if (attrs.containsKey(align)) {
+                body.append("        builder.setDrawableAlign(CompatTextViewSpec.").append(SIDE_CONSTANTS[i])
+                        .append(", ").append(enumValue(attrs, used, align, ALIGNS)).append(");\n");
+            }
+        }
+        if (attrs.containsKey("ctv_rasterizeDrawables")) {
+            body.append("        builder.setRasterizeDrawables(").append(bool(attrs, used, "ctv_rasterizeDrawables")).append(");\n");
+        }
+        if (attrs.containsKey("ctv_fadeDuring")) {
+            body.append("        builder.setFadeDuring(").append(integer(attrs, used, "ctv_fadeDuring")).append(");\n");
+        }
+        if (attrs.containsKey("ctv_ripple")) {
+            body.append("        builder.setRipple(").append(bool(attrs, used, "ctv_ripple")).append(");\n");
+        }
+        if (hasAny(attrs, "ctv_z", "ctv_z_during", "ctv_z_max_lift")) {
+            body.append("        builder.setZ(").append(attrs.containsKey("ctv_z") ? bool(attrs, used, "ctv_z") : "false")
+                    .append(", ").append(attrs.containsKey("ctv_z_during") ? integer(attrs, used, "ctv_z_during") : "CompatTextView.DEFAULT_Z_DURING")
+                    .append(", ").append(attrs.containsKey("ctv_z_max_lift") ? offset(attrs, used, "ctv_z_max_lift") : "CompatTextView.DEFAULT_Z_MAX_LIFT")
+                    .append(");\n");
+        }
+        if (attrs.containsKey("ctv_snapshot")) {
+            body.append("        builder.setSnapshot(").append(bool(attrs, used, "ctv_snapshot")).append(");\n");
+        }
+        for (int i = 0; i < 4; i++) {
+            stateColor(body, attrs, used, "ctv_badge" + STATES[i] + "Color", "setBadgeColor", i);
+        }
+        if (attrs.containsKey("ctv_badgeTextColor")) {
+            body.append("        builder.setBadgeTextColor(").append(color(attrs, used, "ctv_badgeTextColor", null)).append(");\n");
+        }
+        if (attrs.containsKey("ctv_badgeTextSize")) {
+            body.append("        builder.setBadgeTextSize(").append(offset(attrs, used, "ctv_badgeTextSize")).append(");\n");
+        }
+        if (attrs.containsKey("ctv_badgeDotRadius")) {
+            body.append("        builder.setBadgeDotRadius(").append(offset(attrs, used, "ctv_badgeDotRadius")).append(");\n");
+        }
+        if (attrs.containsKey("ctv_badgeMaxCount")) {
+            body.append("        builder.setBadgeMaxCount(").append(integer(attrs, used, "ctv_badgeMaxCount")).append(");\n");
+        }
+        if (hasAny(attrs, "ctv_badgeAnchor", "ctv_badgeOffsetX", "ctv_badgeOffsetY")) {
+            body.append("        builder.setBadgeAnchor(").append(attrs.containsKey("ctv_badgeAnchor")
+                    ? enumValue(attrs, used, "ctv_badgeAnchor", ANCHORS) : "CompatTextViewSpec.ANCHOR_TOP_RIGHT")
+                    .append(", ").append(attrs.containsKey("ctv_badgeOffsetX") ? offset(attrs, used, "ctv_badgeOffsetX") : "0")
+                    .append(", ").append(attrs.containsKey("ctv_badgeOffsetY") ? offset(attrs, used, "ctv_badgeOffsetY") : "0")
+                    .append(");\n");
+        }
+        //引用的颜色资源在uiMode等配置变化时重新解析 , 放在最后 , 避免被颜色值的setter清除
+        for (String prefix : STATE_COLORS) {
+            for (int i = 0; i < 4; i++) {
+                String name = prefix + STATES[i] + "Color";
+                //未配置的边框状态颜色与默认状态一致
+                String source = "ctv_stroke".equals(prefix) && !attrs.containsKey(name) ? "ctv_strokeColor" : name;
+                colorResource(body, attrs, name, source);
+            }
+        }
+        for (String side : SIDES) {
+            colorResource(body, attrs, "ctv_tint" + side, "ctv_tint" + side);
+        }
+        colorResource(body, attrs, "ctv_badgeTextColor", "ctv_badgeTextColor");
+        for (String name : attrs.keySet()) {
+            if (!used.contains(name)) {
+                //新增的属性还没有对应的生成规则
+                throw new SpecGenerator.UnsupportedException("unknown attribute " + name);
+            }
+        }
+
+        String fingerprint = inline ? fingerprint(attrs) : null;
+        int index = mCount++;
+        mIndex.append("        mIndex.put(").append(id).append(", ").append(index).append(");\n");
+        if (null != fingerprint) {
+            mFingerprints.append("        mFingerprints[").append(index).append("] = ").append(fingerprint).append(";\n");
+        }
+        mCases.append("            case ").append(index).append(":\n");
+        mCases.append("                return create").append(index).append("(context);\n");
+        mMethods.append("\n");
+        mMethods.append("    /**\n");
+        mMethods.append("     * ").append(comment).append("\n");
+        mMethods.append("     */\n");
+        mMethods.append("    private static CompatTextViewSpec create").append(index).append("(Context context) {\n");
+        mMethods.append("        Resources res = context.getResources();\n");
+        mMethods.append("        DisplayMetrics metrics = res.getDisplayMetrics();\n");
+        mMethods.append("        CompatTextViewSpec.Builder builder = new CompatTextViewSpec.Builder();\n");
+        mMethods.append(body);
+        mMethods.append("        return builder.build();\n");
+        mMethods.append("    }\n");
+    }
+
+    String toSource() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(mPackageName).append(";\n\n");
+        sb.append("import android.content.Context;\n");
+        sb.append("import android.content.res.Resources;\n");
+        sb.append("import android.graphics.Color;\n");
+        sb.append("import android.support.annotation.NonNull;\n");
+        sb.append("import android.support.annotation.Nullable;\n");
+        sb.append("import android.support.v4.content.ContextCompat;\n");
+        sb.append("import android.util.DisplayMetrics;\n");
+        sb.append("import android.util.SparseIntArray;\n");
+        sb.append("import android.util.TypedValue;\n\n");
+        sb.append("import com.tk.compattextview.CompatTextView;\n");
+        sb.append("import com.tk.compattextview.CompatTextViewSpec;\n");
+        sb.append("import com.tk.compattextview.SpecRegistry;\n\n");
+        sb.append("/**\n");
+        sb.append(" * 由CompatTextView generator根据styles和layout生成 , 不要手动修改 ,\n");
+        sb.append(" * 通过{@link SpecRegistry#register(SpecRegistry.Provider)}注册\n");
+        sb.append(" */\n");
+        sb.append("@SuppressWarnings(\"unused\")\n");
+        sb.append("public final class ").append(SpecGenerator.CLASS_NAME).append(" implements SpecRegistry.Provider {\n");
+        sb.append("    private final SparseIntArray mIndex = new SparseIntArray(").append(mCount).append(");\n");
+        sb.append("    /**\n");
+        sb.append("     * 内联属性的指纹 , style为0\n");
+        sb.append("     */\n");
+        sb.append("    private final int[] mFingerprints = new int[").append(mCount).append("];\n\n");
+        sb.append("    public ").append(SpecGenerator.CLASS_NAME).append("() {\n");
+        sb.append(mIndex);
+        sb.append(mFingerprints);
+        sb.append("    }\n\n");
+        sb.append("    @Nullable\n");
+        sb.append("    @Override\n");
+        sb.append("    public CompatTextViewSpec create(int id, int fingerprint, @NonNull Context context) {\n");
+        sb.append("        int index = mIndex.get(id, -1);\n");
+        sb.append("        if (index < 0 || mFingerprints[index] != fingerprint) {\n");
+        sb.append("            return null;\n");
+        sb.append("        }\n");
+        sb.append("        switch (index) {\n");
+        sb.append(mCases);
+        sb.append("            default:\n");
+        sb.append("                return null;\n");
+        sb.append("        }\n");
+        sb.append("    }\n");
+        sb.append(mMethods);
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static boolean hasAny(Map<String, String> attrs, String... names) {
+        for (String name : names) {
+            if (attrs.containsKey(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void stateColor(StringBuilder body, Map<String, String> attrs, Set<String> used,
+                                   String name, String setter, int state) throws SpecGenerator.UnsupportedException {
+        if (attrs.containsKey(name)) {
+            body.append("        builder.").append(setter).append("(CompatTextViewSpec.").append(STATE_CONSTANTS[state])
+                    .append(", ").append(color(attrs, used, name, null)).append(");\n");
+        }
+    }
+
+    private static void colorResource(StringBuilder body, Map<String, String> attrs, String name, String source)
+            throws SpecGenerator.UnsupportedException {
+        String value = attrs.get(source);
+        if (null == value || COLOR.matcher(value).matches()) {
+            return;
+        }
+        //颜色值已经在setter中解析 , 这里只记录资源
+        body.append("        builder.setColorResource(R.styleable.CompatTextView_").append(name)
+                .append(", ").append(reference(source, value, "color")).append(");\n");
+    }
+
+    private static String color(Map<String, String> attrs, Set<String> used, String name, String defaultValue)
+            throws SpecGenerator.UnsupportedException {
+        String value = attrs.get(name);
+        if (null == value) {
+            return defaultValue;
+        }
+        used.add(name);
+        Matcher matcher = COLOR.matcher(value);
+        if (matcher.matches()) {
+            return "0x" + argb(matcher.group(1)).toUpperCase();
+        }
+        return "ContextCompat.getColor(context, " + reference(name, value, "color") + ")";
+    }
+
+    /**
+     * #RGB , #ARGB , #RRGGBB展开为AARRGGBB
+     */
+    private static String argb(String hex) {
+        if (hex.length() <= 4) {
+            StringBuilder expanded = new StringBuilder();
+            for (char c : hex.toCharArray()) {
+                expanded.append(c).append(c);
+            }
+            hex = expanded.toString();
+        }
+        if (hex.length() == 6) {
+            hex = "FF" + hex;
+        }
+        return hex;
+    }
+
+    private static String dimension(Map<String, String> attrs, Set<String> used, String name)
+            throws SpecGenerator.UnsupportedException {
+        String value = attrs.get(name);
+        if (null == value) {
+            return "0F";
+        }
+        used.add(name);
+        Matcher matcher = DIMENSION.matcher(value);
+        if (matcher.matches()) {
+            return "TypedValue.applyDimension(" + UNITS.get(matcher.group(2)) + ", " + matcher.group(1) + "F, metrics)";
+        }
+        return "res.getDimension(" + reference(name, value, "dimen") + ")";
+    }
+
+    /**
+     * 与TypedArray#getDimensionPixelOffset一致 , 直接截断
+     */
+    private static String offset(Map<String, String> attrs, Set<String> used, String name)
+            throws SpecGenerator.UnsupportedException {
+        String value = attrs.get(name);
+        used.add(name);
+        if (DIMENSION.matcher(value).matches()) {
+            return "(int) " + dimension(attrs, used, name);
+        }
+        return "res.getDimensionPixelOffset(" + reference(name, value, "dimen") + ")";
+    }
+
+    private static String integer(Map<String, String> attrs, Set<String> used, String name)
+            throws SpecGenerator.UnsupportedException {
+        String value = attrs.get(name);
+        used.add(name);
+        if (INTEGER.matcher(value).matches()) {
+            return value;
+        }
+        return "res.getInteger(" + reference(name, value, "integer") + ")";
+    }
+
+    private static String bool(Map<String, String> attrs, Set<String> used, String name)
+            throws SpecGenerator.UnsupportedException {
+        String value = attrs.get(name);
+        used.add(name);
+        if ("true".equals(value) || "false".equals(value)) {
+            return value;
+        }
+        return "res.getBoolean(" + reference(name, value, "bool") + ")";
+    }
+
+    private static String enumValue(Map<String, String> attrs, Set<String> used, String name, Map<String, Integer> values)
+            throws SpecGenerator.UnsupportedException {
+        String value = attrs.get(name);
+        used.add(name);
+        if (values.containsKey(value)) {
+            return String.valueOf(values.get(value));
+        }
+        if (INTEGER.matcher(value).matches()) {
+            return value;
+        }
+        throw new SpecGenerator.UnsupportedException(name + "=\"" + value + "\"");
+    }
+
+    private static String drawable(Map<String, String> attrs, Set<String> used, String name)
+            throws SpecGenerator.UnsupportedException {
+        String value = attrs.get(name);
+        if (null == value || "@null".equals(value)) {
+            used.add(name);
+            return "0";
+        }
+        used.add(name);
+        Matcher matcher = REFERENCE.matcher(value);
+        if (matcher.matches() && ("drawable".equals(matcher.group(2)) || "mipmap".equals(matcher.group(2)))) {
+            return (null == matcher.group(1) ? "R." : "android.R.") + matcher.group(2) + "." + SpecGenerator.javaName(matcher.group(3));
+        }
+        throw new SpecGenerator.UnsupportedException(name + "=\"" + value + "\"");
+    }
+
+    /**
+     * SpecRegistry#fingerprint(String...)的调用 , 引用的资源id在运行时拼接
+     */
+    private static String fingerprint(Map<String, String> attrs) throws SpecGenerator.UnsupportedException {
+        StringBuilder sb = new StringBuilder("SpecRegistry.fingerprint(");
+        boolean first = true;
+        for (Map.Entry<String, String> entry : attrs.entrySet()) {
+            sb.append(first ? "" : ",\n                ").append('"').append(entry.getKey()).append("\", ")
+                    .append(compiledValue(entry.getKey(), entry.getValue()));
+            first = false;
+        }
+        return sb.append(")").toString();
+    }
+
+    /**
+     * 与aapt编译后AttributeSet#getAttributeValue(int)一致的值 : 颜色#aarrggbb(省略前导0) ,
+     * 尺寸经过complex编码后的float加单位 , 引用为@id , 枚举为对应的整数
+     */
+    static String compiledValue(String name, String value) throws SpecGenerator.UnsupportedException {
+        Matcher matcher = COLOR.matcher(value);
+        if (matcher.matches()) {
+            return '"' + "#" + Long.toHexString(Long.parseLong(argb(matcher.group(1)), 16)) + '"';
+        }
+        matcher = DIMENSION.matcher(value);
+        if (matcher.matches()) {
+            float compiled = complexToFloat(floatToComplex(Float.parseFloat(matcher.group(1))));
+            return '"' + Float.toString(compiled) + COMPILED_UNITS.get(matcher.group(2)) + '"';
+        }
+        if ("true".equals(value) || "false".equals(value)) {
+            return '"' + value + '"';
+        }
+        if (INTEGER.matcher(value).matches()) {
+            return '"' + String.valueOf(Integer.parseInt(value)) + '"';
+        }
+        matcher = REFERENCE.matcher(value);
+        if (matcher.matches()) {
+            return "\"@\" + " + (null == matcher.group(1) ? "R." : "android.R.") + matcher.group(2) + "."
+                    + SpecGenerator.javaName(matcher.group(3));
+        }
+        Map<String, Integer> values = enumValues(name);
+        if (null != values && values.containsKey(value)) {
+            return '"' + String.valueOf(values.get(value)) + '"';
+        }
+        throw new SpecGenerator.UnsupportedException(name + "=\"" + value + "\"");
+    }
+
+    private static Map<String, Integer> enumValues(String name) {
+        if (name.startsWith("ctv_gradientDirection")) {
+            return DIRECTIONS;
+        }
+        if (name.startsWith("ctv_drawable") && name.endsWith("Align")) {
+            return ALIGNS;
+        }
+        if ("ctv_badgeAnchor".equals(name)) {
+            return ANCHORS;
+        }
+        return null;
+    }
+
+    /**
+     * 与aapt(ResTable::stringToFloat)的尺寸编码一致
+     */
+    static int floatToComplex(float value) {
+        boolean neg = value < 0;
+        if (neg) {
+            value = -value;
+        }
+        long bits = (long) (value * (1 << 23) + .5f);
+        int radix;
+        int shift;
+        if ((bits & 0x7fffffL) == 0) {
+            radix = 0;
+            shift = 23;
+        } else if ((bits & 0xffffffffff800000L) == 0) {
+            radix = 3;
+            shift = 0;
+        } else if ((bits & 0xffffffff80000000L) == 0) {
+            radix = 2;
+            shift = 8;
+        } else if ((bits & 0xffffff8000000000L) == 0) {
+            radix = 1;
+            shift = 16;
+        } else {
+            radix = 0;
+            shift = 23;
+        }
+        int mantissa = (int) ((bits >> shift) & 0xffffff);
+        if (neg) {
+            mantissa = (-mantissa) & 0xffffff;
+        }
+        return (radix << 4) | (mantissa << 8);
+    }
+
+    /**
+     * 与TypedValue#complexToFloat一致
+     */
+    static float complexToFloat(int complex) {
+        float mantissaMult = 1.0f / (1 << 8);
+        float[] radixMults = {mantissaMult, 1.0f / (1 << 7) * mantissaMult,
+                1.0f / (1 << 15) * mantissaMult, 1.0f / (1 << 23) * mantissaMult};
+        return (complex & 0xffffff00) * radixMults[(complex >> 4) & 0x3];
+    }
+
+    /**
+     * @xxx/name转换为R.xxx.name , 主题属性(?attr)等无法在编译期确定的值不支持
+     */
+    private static String reference(String name, String value, String type) throws SpecGenerator.UnsupportedException {
+        Matcher matcher = REFERENCE.matcher(value);
+        if (!matcher.matches() || !type.equals(matcher.group(2))) {
+            throw new SpecGenerator.UnsupportedException(name + "=\"" + value + "\"");
+        }
+        return (null == matcher.group(1) ? "R." : "android.R.") + type + "." + SpecGenerator.javaName(matcher.group(3));
+    }
+}
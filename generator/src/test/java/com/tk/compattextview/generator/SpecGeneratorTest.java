@@ -0,0 +1,228 @@
+package com.tk.compattextview.generator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : SpecGenerator的扫描与生成 , 无法在编译期确定的配置不生成 , 并给出提示
+ * </pre>
+ */
+public class SpecGeneratorTest {
+    private static final String RES_AUTO = "http://schemas.android.com/apk/res-auto";
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void inheritance() throws Exception {
+        File res = mFolder.newFolder("res");
+        write(res, "values/styles.xml", "<resources>\n"
+                + "    <style name=\"Tag\">\n"
+                + "        <item name=\"ctv_solidColor\">#F00</item>\n"
+                + "        <item name=\"ctv_radius\">4dp</item>\n"
+                + "    </style>\n"
+                + "    <style name=\"Tag.Large\">\n"
+                + "        <item name=\"ctv_radius\">8dp</item>\n"
+                + "    </style>\n"
+                + "    <style name=\"Tag.Outline\" parent=\"Tag\">\n"
+                + "        <item name=\"ctv_strokeWidth\">1dp</item>\n"
+                + "    </style>\n"
+                + "</resources>");
+        SpecGenerator generator = scan(res);
+        String source = generator.generate("com.example");
+
+        String large = method(source, "style/Tag.Large");
+        assertTrue(large.contains("builder.setSolidColor(CompatTextViewSpec.STATE_DEFAULT, 0xFFFF0000)"));
+        assertTrue(large.contains("TypedValue.COMPLEX_UNIT_DIP, 8F, metrics"));
+        assertFalse(large.contains("4F"));
+        String outline = method(source, "style/Tag.Outline");
+        assertTrue(outline.contains("0xFFFF0000"));
+        assertTrue(outline.contains("builder.setStrokeWidth("));
+        assertTrue(generator.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void unscannedParent() throws Exception {
+        File res = mFolder.newFolder("res");
+        write(res, "values/styles.xml", "<resources>\n"
+                + "    <style name=\"AppTheme\" parent=\"Theme.AppCompat.Light\" />\n"
+                + "    <style name=\"Tag\" parent=\"Widget.Library.Tag\">\n"
+                + "        <item name=\"ctv_solidColor\">#F00</item>\n"
+                + "    </style>\n"
+                + "    <style name=\"Tag.Framework\" parent=\"@android:style/Widget.TextView\">\n"
+                + "        <item name=\"ctv_solidColor\">#0F0</item>\n"
+                + "    </style>\n"
+                + "</resources>");
+        SpecGenerator generator = scan(res);
+        String source = generator.generate("com.example");
+
+        //其他模块中的parent可能包含ctv_*属性 , 不生成
+        assertFalse(source.contains("R.style.Tag,"));
+        assertTrue(source.contains("R.style.Tag_Framework"));
+        //没有ctv_*属性的主题不提示
+        assertEquals(1, generator.getWarnings().size());
+        assertTrue(generator.getWarnings().iterator().next().startsWith("style/Tag :"));
+    }
+
+    @Test
+    public void ambiguousQualifier() throws Exception {
+        File res = mFolder.newFolder("res");
+        write(res, "values/styles.xml", "<resources>\n"
+                + "    <style name=\"Tag\">\n"
+                + "        <item name=\"ctv_solidColor\">#F00</item>\n"
+                + "    </style>\n"
+                + "    <style name=\"Tag.Child\">\n"
+                + "        <item name=\"ctv_radius\">4dp</item>\n"
+                + "    </style>\n"
+                + "</resources>");
+        write(res, "values-night/styles.xml", "<resources>\n"
+                + "    <style name=\"Tag\">\n"
+                + "        <item name=\"ctv_solidColor\">#000</item>\n"
+                + "    </style>\n"
+                + "</resources>");
+        SpecGenerator generator = scan(res);
+        String source = generator.generate("com.example");
+
+        assertFalse(source.contains("R.style.Tag,"));
+        //子style继承了不确定的parent
+        assertFalse(source.contains("R.style.Tag_Child"));
+        assertEquals(2, generator.getWarnings().size());
+    }
+
+    @Test
+    public void conflictingIds() throws Exception {
+        File res = mFolder.newFolder("res");
+        write(res, "layout/a.xml", layout("@+id/title", "app:ctv_solidColor=\"#F00\""));
+        write(res, "layout/b.xml", layout("@+id/title", "app:ctv_solidColor=\"#0F0\""));
+        write(res, "layout/c.xml", layout("@+id/same", "app:ctv_radius=\"4dp\""));
+        write(res, "layout-land/c.xml", layout("@+id/same", "app:ctv_radius=\"4dp\""));
+        SpecGenerator generator = scan(res);
+        String source = generator.generate("com.example");
+
+        assertFalse(source.contains("R.id.title"));
+        assertTrue(source.contains("R.id.same"));
+        assertEquals(1, generator.getWarnings().size());
+        assertTrue(generator.getWarnings().iterator().next().startsWith("id/title :"));
+    }
+
+    @Test
+    public void fingerprint() throws Exception {
+        File res = mFolder.newFolder("res");
+        write(res, "layout/a.xml", layout("@+id/title", "app:ctv_solidColor=\"@color/bg\" "
+                + "app:ctv_textColor=\"#8F00\" app:ctv_radius=\"1.3dp\" app:ctv_drawableLeftAlign=\"bottom\""));
+        String source = scan(res).generate("com.example");
+
+        //与aapt编译后AttributeSet#getAttributeValue(int)一致
+        assertTrue(source.contains("\"ctv_solidColor\", \"@\" + R.color.bg"));
+        assertTrue(source.contains("\"ctv_drawableLeftAlign\", \"2\""));
+        assertEquals("\"#88ff0000\"", SpecWriter.compiledValue("ctv_textColor", "#8F00"));
+        assertEquals("\"#ff00ff00\"", SpecWriter.compiledValue("ctv_textColor", "#00ff00"));
+        assertEquals("\"#ff\"", SpecWriter.compiledValue("ctv_textColor", "#000000FF"));
+        assertEquals("\"16.0dip\"", SpecWriter.compiledValue("ctv_radius", "16dp"));
+        assertEquals("\"-2.0px\"", SpecWriter.compiledValue("ctv_radius", "-2px"));
+        assertEquals("\"0.5sp\"", SpecWriter.compiledValue("ctv_radius", "0.5sp"));
+        assertEquals("\"true\"", SpecWriter.compiledValue("ctv_ripple", "true"));
+    }
+
+    @Test
+    public void colorResolvedOnce() throws Exception {
+        File res = mFolder.newFolder("res");
+        write(res, "values/styles.xml", "<resources>\n"
+                + "    <style name=\"Tag\">\n"
+                + "        <item name=\"ctv_strokeColor\">@color/line</item>\n"
+                + "        <item name=\"ctv_badgeTextColor\">@color/badge_text</item>\n"
+                + "    </style>\n"
+                + "</resources>");
+        String source = scan(res).generate("com.example");
+
+        assertEquals(1, count(source, "ContextCompat.getColor(context, R.color.line)"));
+        //未配置的边框状态颜色同样引用该资源
+        assertEquals(4, count(source, ", R.color.line);"));
+        //角标文字颜色同样在uiMode变化时重新解析
+        assertEquals(1, count(source, "builder.setColorResource(R.styleable.CompatTextView_ctv_badgeTextColor, R.color.badge_text);"));
+    }
+
+    @Test
+    public void unsupported() throws Exception {
+        File res = mFolder.newFolder("res");
+        write(res, "values/styles.xml", "<resources>\n"
+                + "    <style name=\"Themed\">\n"
+                + "        <item name=\"ctv_solidColor\">?attr/colorPrimary</item>\n"
+                + "    </style>\n"
+                + "    <style name=\"Unknown\">\n"
+                + "        <item name=\"ctv_notExists\">1</item>\n"
+                + "    </style>\n"
+                + "</resources>");
+        write(res, "layout/a.xml", layout("@+id/title", "app:ctv_gradientDirection=\"diagonal\""));
+        SpecGenerator generator = scan(res);
+        String source = generator.generate("com.example");
+
+        assertFalse(source.contains("R.style.Themed"));
+        assertFalse(source.contains("R.style.Unknown"));
+        assertFalse(source.contains("R.id.title"));
+        assertEquals(3, generator.getWarnings().size());
+        for (String warning : generator.getWarnings()) {
+            assertTrue(warning, warning.endsWith("fallback to runtime parsing"));
+        }
+    }
+
+    private static SpecGenerator scan(File res) throws Exception {
+        SpecGenerator generator = new SpecGenerator();
+        generator.scan(res);
+        return generator;
+    }
+
+    private static String layout(String id, String attrs) {
+        return "<LinearLayout xmlns:android=\"http://schemas.android.com/apk/res/android\"\n"
+                + "    xmlns:app=\"" + RES_AUTO + "\">\n"
+                + "    <com.tk.compattextview.CompatTextView\n"
+                + "        android:id=\"" + id + "\"\n"
+                + "        " + attrs + " />\n"
+                + "</LinearLayout>";
+    }
+
+    /**
+     * 生成的工厂方法 , 从注释开始到下一个方法
+     */
+    private static String method(String source, String comment) {
+        int start = source.indexOf("* " + comment + "\n");
+        assertTrue(comment, start >= 0);
+        int end = source.indexOf("return builder.build();", start);
+        return source.substring(start, end);
+    }
+
+    private static int count(String source, String text) {
+        int count = 0;
+        for (int i = source.indexOf(text); i >= 0; i = source.indexOf(text, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void write(File res, String path, String content) throws IOException {
+        File file = new File(res, path);
+        if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            throw new IOException("mkdirs failed: " + file.getParentFile());
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.tk.compattextview;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 汇总全部CompatTextView的统计数据 , 线程安全 , 可定期读取后上报并{@link #reset()} ,
+ *              需要单个View的数据时继承并调用super
+ *
+ *              AggregateMetrics metrics = new AggregateMetrics();
+ *              CompatTextView.setMetrics(metrics);
+ * </pre>
+ */
+public class AggregateMetrics extends CompatTextView.Metrics {
+    private static final int CACHE_COUNT = 6;
+    private static final int DRAWABLE_COUNT = 3;
+
+    private final AtomicLong mInitCount = new AtomicLong();
+    private final AtomicLong mInitNanos = new AtomicLong();
+    private final AtomicLong mBackgroundCount = new AtomicLong();
+    private final AtomicLong mBackgroundNanos = new AtomicLong();
+    private final AtomicLong mBackgroundRebuilds = new AtomicLong();
+    private final AtomicLong mOffsetCount = new AtomicLong();
+    private final AtomicLong mOffsetNanos = new AtomicLong();
+    private final AtomicLong mStateCount = new AtomicLong();
+    private final AtomicLong mStateNanos = new AtomicLong();
+    private final AtomicLongArray mDrawables = new AtomicLongArray(DRAWABLE_COUNT);
+    private final AtomicLongArray mCacheHits = new AtomicLongArray(CACHE_COUNT);
+    private final AtomicLongArray mCacheMisses = new AtomicLongArray(CACHE_COUNT);
+
+    @Override
+    public void onInit(@NonNull CompatTextView view, long nanos) {
+        mInitCount.incrementAndGet();
+        mInitNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public void onProcessBackground(@NonNull CompatTextView view, long nanos, boolean rebuilt) {
+        mBackgroundCount.incrementAndGet();
+        mBackgroundNanos.addAndGet(nanos);
+        if (rebuilt) {
+            mBackgroundRebuilds.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onOffsetDrawable(@NonNull CompatTextView view, long nanos) {
+        mOffsetCount.incrementAndGet();
+        mOffsetNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public void onStateChanged(@NonNull CompatTextView view, long nanos) {
+        mStateCount.incrementAndGet();
+        mStateNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public void onDrawableCreated(int type) {
+        if (type >= 0 && type < DRAWABLE_COUNT) {
+            mDrawables.incrementAndGet(type);
+        }
+    }
+
+    @Override
+    public void onCacheResult(int cache, boolean hit) {
+        if (cache >= 0 && cache < CACHE_COUNT) {
+            (hit ? mCacheHits : mCacheMisses).incrementAndGet(cache);
+        }
+    }
+
+    public long getInitCount() {
+        return mInitCount.get();
+    }
+
+    public long getInitNanos() {
+        return mInitNanos.get();
+    }
+
+    public long getBackgroundCount() {
+        return mBackgroundCount.get();
+    }
+
+    public long getBackgroundNanos() {
+        return mBackgroundNanos.get();
+    }
+
+    public long getBackgroundRebuilds() {
+        return mBackgroundRebuilds.get();
+    }
+
+    public long getOffsetCount() {
+        return mOffsetCount.get();
+    }
+
+    public long getOffsetNanos() {
+        return mOffsetNanos.get();
+    }
+
+    public long getStateChangeCount() {
+        return mStateCount.get();
+    }
+
+    public long getStateChangeNanos() {
+        return mStateNanos.get();
+    }
+
+    /**
+     * @param type {@link CompatTextView.Metrics#DRAWABLE_BACKGROUND} ...
+     * @return
+     */
+    public long getDrawablesCreated(int type) {
+        return mDrawables.get(type);
+    }
+
+    /**
+     * @param cache {@link CompatTextView.Metrics#CACHE_SPEC} ...
+     * @return
+     */
+    public long getCacheHits(int cache) {
+        return mCacheHits.get(cache);
+    }
+
+    public long getCacheMisses(int cache) {
+        return mCacheMisses.get(cache);
+    }
+
+    /**
+     * @param cache
+     * @return 0~1 , 没有访问时为0
+     */
+    public float getCacheHitRate(int cache) {
+        long hits = mCacheHits.get(cache);
+        long total = hits + mCacheMisses.get(cache);
+        return total == 0 ? 0F : (float) hits / total;
+    }
+
+    public void reset() {
+        mInitCount.set(0);
+        mInitNanos.set(0);
+        mBackgroundCount.set(0);
+        mBackgroundNanos.set(0);
+        mBackgroundRebuilds.set(0);
+        mOffsetCount.set(0);
+        mOffsetNanos.set(0);
+        mStateCount.set(0);
+        mStateNanos.set(0);
+        for (int i = 0; i < DRAWABLE_COUNT; i++) {
+            mDrawables.set(i, 0);
+        }
+        for (int i = 0; i < CACHE_COUNT; i++) {
+            mCacheHits.set(i, 0);
+            mCacheMisses.set(i, 0);
+        }
+    }
+
+    /**
+     * 单行key=value , 方便直接写入日志或上报
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("AggregateMetrics{");
+        builder.append("init=").append(mInitCount.get()).append('/').append(mInitNanos.get()).append("ns");
+        builder.append(", background=").append(mBackgroundCount.get()).append('/').append(mBackgroundNanos.get()).append("ns");
+        builder.append(", backgroundRebuilds=").append(mBackgroundRebuilds.get());
+        builder.append(", offset=").append(mOffsetCount.get()).append('/').append(mOffsetNanos.get()).append("ns");
+        builder.append(", state=").append(mStateCount.get()).append('/').append(mStateNanos.get()).append("ns");
+        builder.append(", drawables=[");
+        for (int i = 0; i < DRAWABLE_COUNT; i++) {
+            builder.append(i == 0 ? "" : ", ").append(mDrawables.get(i));
+        }
+        builder.append("], caches=[");
+        for (int i = 0; i < CACHE_COUNT; i++) {
+            builder.append(i == 0 ? "" : ", ").append(mCacheHits.get(i)).append('/').append(mCacheMisses.get(i));
+        }
+        return builder.append("]}").toString();
+    }
+}
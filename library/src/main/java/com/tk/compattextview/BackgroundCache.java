@@ -0,0 +1,143 @@
+package com.tk.compattextview;
+
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+
+import java.util.Arrays;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 背景Drawable的进程级缓存 , 相同配置的CompatTextView通过
+ *              {@link Drawable.ConstantState#newDrawable(Resources)}共享同一份不可变状态
+ * </pre>
+ */
+public final class BackgroundCache {
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private static final LruCache<Key, Drawable.ConstantState> CACHE = new LruCache<>(DEFAULT_MAX_SIZE);
+
+    private BackgroundCache() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 命中时从缓存的ConstantState生成新的Drawable
+     *
+     * @param key
+     * @param res
+     * @return
+     */
+    @Nullable
+    static Drawable get(@NonNull Key key, @Nullable Resources res) {
+        Drawable.ConstantState state = CACHE.get(key);
+        CompatTextView.reportCache(CompatTextView.Metrics.CACHE_BACKGROUND, null != state);
+        return null == state ? null : state.newDrawable(res);
+    }
+
+    /**
+     * 缓存Drawable的ConstantState
+     *
+     * @param key
+     * @param drawable
+     */
+    static void put(@NonNull Key key, @NonNull Drawable drawable) {
+        Drawable.ConstantState state = drawable.getConstantState();
+        if (null != state) {
+            CACHE.put(key, state);
+        }
+    }
+
+    public static int hitCount() {
+        return CACHE.hitCount();
+    }
+
+    public static int missCount() {
+        return CACHE.missCount();
+    }
+
+    public static int evictionCount() {
+        return CACHE.evictionCount();
+    }
+
+    public static int size() {
+        return CACHE.size();
+    }
+
+    public static int maxSize() {
+        return CACHE.maxSize();
+    }
+
+    /**
+     * 调整缓存上限 , 超出部分按LRU淘汰
+     *
+     * @param maxSize
+     */
+    public static void resize(int maxSize) {
+        CACHE.resize(maxSize);
+    }
+
+    public static void clear() {
+        CACHE.evictAll();
+    }
+
+    /**
+     * 完整的背景配置 , 作为缓存的key
+     */
+    static final class Key {
+        private final float[] cornerRadius;
+        private final int strokeWidth;
+        /**
+         * Spec中背景相关的一段 , stroke , solid , gradient
+         */
+        private final int[] values;
+        private final int fadeDuring;
+        /**
+         * RippleDrawable or StateListDrawable
+         */
+        private final boolean ripple;
+        private final int hashCode;
+
+        Key(CompatTextViewSpec spec, boolean ripple) {
+            //Spec不可变 , 直接引用
+            this.cornerRadius = spec.cornerRadius;
+            this.strokeWidth = spec.strokeWidth;
+            this.values = Arrays.copyOfRange(spec.values, 0, CompatTextViewSpec.BACKGROUND_END);
+            this.fadeDuring = spec.fadeDuring;
+            this.ripple = ripple;
+
+            int result = Arrays.hashCode(this.cornerRadius);
+            result = 31 * result + strokeWidth;
+            result = 31 * result + Arrays.hashCode(this.values);
+            result = 31 * result + fadeDuring;
+            result = 31 * result + (ripple ? 1 : 0);
+            hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && strokeWidth == key.strokeWidth
+                    && fadeDuring == key.fadeDuring
+                    && ripple == key.ripple
+                    && Arrays.equals(cornerRadius, key.cornerRadius)
+                    && Arrays.equals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
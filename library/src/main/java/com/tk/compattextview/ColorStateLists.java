@@ -0,0 +1,112 @@
+package com.tk.compattextview;
+
+import android.content.res.ColorStateList;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.v4.util.LruCache;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : ColorStateList的进程级复用池 , 文本颜色和涟漪颜色的组合很少 ,
+ *              相同颜色的CompatTextView共享同一个实例 , ColorStateList本身不可变
+ * </pre>
+ */
+final class ColorStateLists {
+    private static final int MAX_SIZE = 64;
+
+    /**
+     * selected , pressed , disabled , default -> 按{@link CompatTextView#STATES}构建的ColorStateList
+     */
+    private static final LruCache<Key, ColorStateList> TEXT = new LruCache<>(MAX_SIZE);
+    /**
+     * color -> {@link ColorStateList#valueOf(int)}
+     */
+    private static final LruCache<Integer, ColorStateList> SINGLE = new LruCache<>(MAX_SIZE);
+
+    private ColorStateLists() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 文本颜色 , 顺序与{@link CompatTextView#STATES}一致
+     *
+     * @param selected
+     * @param pressed
+     * @param disabled
+     * @param normal
+     * @return
+     */
+    @NonNull
+    static ColorStateList obtain(@ColorInt int selected, @ColorInt int pressed,
+                                 @ColorInt int disabled, @ColorInt int normal) {
+        Key key = new Key(selected, pressed, disabled, normal);
+        ColorStateList colors = TEXT.get(key);
+        if (null == colors) {
+            colors = new ColorStateList(CompatTextView.STATES, new int[]{selected, pressed, disabled, normal});
+            TEXT.put(key, colors);
+        }
+        return colors;
+    }
+
+    /**
+     * 单一颜色 , 代替{@link ColorStateList#valueOf(int)}
+     *
+     * @param color
+     * @return
+     */
+    @NonNull
+    static ColorStateList valueOf(@ColorInt int color) {
+        Integer key = color;
+        ColorStateList colors = SINGLE.get(key);
+        if (null == colors) {
+            colors = ColorStateList.valueOf(color);
+            SINGLE.put(key, colors);
+        }
+        return colors;
+    }
+
+    static void clear() {
+        TEXT.evictAll();
+        SINGLE.evictAll();
+    }
+
+    private static final class Key {
+        private final int selected;
+        private final int pressed;
+        private final int disabled;
+        private final int normal;
+
+        Key(int selected, int pressed, int disabled, int normal) {
+            this.selected = selected;
+            this.pressed = pressed;
+            this.disabled = disabled;
+            this.normal = normal;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return selected == key.selected
+                    && pressed == key.pressed
+                    && disabled == key.disabled
+                    && normal == key.normal;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = selected;
+            result = 31 * result + pressed;
+            result = 31 * result + disabled;
+            result = 31 * result + normal;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.tk.compattextview;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.ColorInt;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.text.style.ReplacementSpan;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 文本中的内联图标 , 与ImageSpan不同 , 图标居中于所在行的文字 ,
+ *              比文字更高时撑开该行 , 不需要额外的View
+ *
+ *              SpannableString text = new SpannableString("  VIP");
+ *              text.setSpan(new CompatImageSpan(context, R.drawable.vector_vip, Color.RED, size, size),
+ *                      0, 1, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+ * </pre>
+ */
+public class CompatImageSpan extends ReplacementSpan {
+    private final Drawable mDrawable;
+    /**
+     * 与后续文字的间距
+     */
+    private final int mPadding;
+    /**
+     * 只在主线程绘制时使用 , 避免每次绘制分配
+     */
+    private final Paint.FontMetricsInt mFontMetrics = new Paint.FontMetricsInt();
+
+    /**
+     * @param drawable 需要已设置bounds
+     */
+    public CompatImageSpan(@NonNull Drawable drawable) {
+        this(drawable, 0);
+    }
+
+    /**
+     * @param drawable 需要已设置bounds
+     * @param padding  与后续文字的间距
+     */
+    public CompatImageSpan(@NonNull Drawable drawable, int padding) {
+        mDrawable = drawable;
+        mPadding = padding;
+    }
+
+    /**
+     * 通过{@link TintUtils}加载 , 相同配置的图标共享ConstantState
+     *
+     * @param context
+     * @param resId
+     * @param color   {@link CompatTextViewSpec#NONE}时不着色
+     * @param width   小于0时使用固有宽度
+     * @param height  小于0时使用固有高度
+     */
+    public CompatImageSpan(@NonNull Context context, @DrawableRes int resId, @ColorInt int color,
+                           int width, int height) {
+        this(load(context, resId, color, width, height), 0);
+    }
+
+    private static Drawable load(Context context, int resId, int color, int width, int height) {
+        Drawable drawable = CompatTextViewSpec.NONE == color
+                ? TintUtils.getDrawable(context, resId, width, height)
+                : TintUtils.getTintDrawable(context, resId, color, width, height);
+        if (null == drawable) {
+            throw new IllegalArgumentException("drawable not found: " + resId);
+        }
+        return drawable;
+    }
+
+    @NonNull
+    public Drawable getDrawable() {
+        return mDrawable;
+    }
+
+    @Override
+    public int getSize(@NonNull Paint paint, CharSequence text, int start, int end, Paint.FontMetricsInt fm) {
+        final Rect bounds = mDrawable.getBounds();
+        if (null != fm) {
+            paint.getFontMetricsInt(fm);
+            final int textHeight = fm.descent - fm.ascent;
+            if (bounds.height() > textHeight) {
+                //以文字中心为基准向上下扩展
+                final int extra = bounds.height() - textHeight;
+                fm.ascent -= extra >> 1;
+                fm.descent += extra - (extra >> 1);
+                fm.top = Math.min(fm.top, fm.ascent);
+                fm.bottom = Math.max(fm.bottom, fm.descent);
+            }
+        }
+        return bounds.right + mPadding;
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas, CharSequence text, int start, int end,
+                     float x, int top, int y, int bottom, @NonNull Paint paint) {
+        final Paint.FontMetricsInt fm = mFontMetrics;
+        paint.getFontMetricsInt(fm);
+        //文字的中心 , 不受行间距影响
+        final int center = y + (fm.descent + fm.ascent >> 1);
+        final int save = canvas.save();
+        canvas.translate(x, center - (mDrawable.getBounds().height() >> 1) - mDrawable.getBounds().top);
+        mDrawable.draw(canvas);
+        canvas.restoreToCount(save);
+    }
+}
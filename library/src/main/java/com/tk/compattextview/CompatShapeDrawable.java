@@ -0,0 +1,501 @@
+package com.tk.compattextview;
+
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.Outline;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+import static com.tk.compattextview.CompatTextView.NULL;
+import static com.tk.compattextview.CompatTextViewSpec.GRADIENT_CENTER_COLOR;
+import static com.tk.compattextview.CompatTextViewSpec.GRADIENT_DIRECTION;
+import static com.tk.compattextview.CompatTextViewSpec.GRADIENT_END_COLOR;
+import static com.tk.compattextview.CompatTextViewSpec.GRADIENT_START_COLOR;
+import static com.tk.compattextview.CompatTextViewSpec.SOLID_COLOR;
+import static com.tk.compattextview.CompatTextViewSpec.STROKE_COLOR;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 代替StateListDrawable + 4个GradientDrawable的背景 ,
+ *              4种状态的配置保存在基本类型数组中 , 直接绘制圆角、渐变和边框 ,
+ *              fadeDuring通过颜色插值实现而不是两个Drawable交叉淡入淡出
+ * </pre>
+ */
+final class CompatShapeDrawable extends Drawable {
+    /**
+     * 不固定状态 , 跟随View的状态切换
+     */
+    static final int STATEFUL = -1;
+
+    private ShapeState mState;
+    private boolean mMutated;
+
+    private final Paint mFillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path mPath = new Path();
+    private final RectF mRect = new RectF();
+    private boolean mPathDirty = true;
+    /**
+     * 每种状态的渐变 , 尺寸变化时重建
+     */
+    private final Shader[] mShaders = new Shader[4];
+    private int mAlpha = 0xFF;
+    /**
+     * default , pressed , selected , disabled , -1时不绘制
+     */
+    private int mIndex;
+    private int mFromIndex = -1;
+    private long mFadeStart;
+
+    /**
+     * @param spec
+     * @param fixedIndex {@link #STATEFUL}或固定的状态
+     */
+    CompatShapeDrawable(@NonNull CompatTextViewSpec spec, int fixedIndex) {
+        this(new ShapeState(spec, fixedIndex));
+    }
+
+    private CompatShapeDrawable(@NonNull ShapeState state) {
+        mState = state;
+        mFillPaint.setStyle(Paint.Style.FILL);
+        mStrokePaint.setStyle(Paint.Style.STROKE);
+        mIndex = STATEFUL == state.fixedIndex ? resolveIndex(getState()) : state.fixedIndex;
+    }
+
+    /**
+     * 在当前实例上应用新的配置 , 之后不再与其他Drawable共享ConstantState ,
+     * 用于{@link CompatTextView#bind(CompatTextViewSpec)}时避免重新获取背景
+     *
+     * @param spec
+     */
+    void setSpec(@NonNull CompatTextViewSpec spec) {
+        final ShapeState state = new ShapeState(spec, mState.fixedIndex);
+        state.changingConfigurations = mState.changingConfigurations;
+        if (state.strokeWidth != mState.strokeWidth || !Arrays.equals(state.radii, mState.radii)) {
+            mPathDirty = true;
+        }
+        mState = state;
+        mMutated = true;
+        Arrays.fill(mShaders, null);
+        if (STATEFUL == state.fixedIndex) {
+            mIndex = resolveIndex(getState());
+        }
+        mFromIndex = -1;
+        mFadeStart = 0;
+        invalidateSelf();
+    }
+
+    /**
+     * 是否有任意状态的配置
+     *
+     * @param spec
+     * @return
+     */
+    static boolean hasPart(@NonNull CompatTextViewSpec spec) {
+        for (int i = 0; i < 4; i++) {
+            if (hasPart(spec, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 该状态下是否有配置
+     *
+     * @param spec
+     * @param index
+     * @return
+     */
+    static boolean hasPart(@NonNull CompatTextViewSpec spec, int index) {
+        return NULL != spec.gradientStartColor(index)
+                || NULL != spec.gradientCenterColor(index)
+                || NULL != spec.gradientEndColor(index)
+                || NULL != spec.solidColor(index);
+    }
+
+    /**
+     * 与StateListDrawable的匹配顺序一致 : selected , pressed , disabled , default
+     *
+     * @param stateSet
+     * @return
+     */
+    private int resolveIndex(int[] stateSet) {
+        boolean selected = false;
+        boolean pressed = false;
+        boolean enabled = false;
+        if (null != stateSet) {
+            for (int state : stateSet) {
+                if (state == android.R.attr.state_selected) {
+                    selected = true;
+                } else if (state == android.R.attr.state_pressed) {
+                    pressed = true;
+                } else if (state == android.R.attr.state_enabled) {
+                    enabled = true;
+                }
+            }
+        }
+        if (selected && mState.hasPart(2)) {
+            return 2;
+        }
+        if (pressed && mState.hasPart(1)) {
+            return 1;
+        }
+        if (!enabled && mState.hasPart(3)) {
+            return 3;
+        }
+        return mState.hasPart(0) ? 0 : -1;
+    }
+
+    @Override
+    public boolean isStateful() {
+        return STATEFUL == mState.fixedIndex;
+    }
+
+    @Override
+    protected boolean onStateChange(int[] stateSet) {
+        if (STATEFUL != mState.fixedIndex) {
+            return false;
+        }
+        int index = resolveIndex(stateSet);
+        if (index == mIndex) {
+            return false;
+        }
+        if (mState.fadeDuring > 0 && mIndex >= 0 && index >= 0 && null != getCallback()) {
+            mFromIndex = mIndex;
+            mFadeStart = SystemClock.uptimeMillis();
+        } else {
+            mFromIndex = -1;
+            mFadeStart = 0;
+        }
+        mIndex = index;
+        invalidateSelf();
+        return true;
+    }
+
+    @Override
+    public void jumpToCurrentState() {
+        mFromIndex = -1;
+        mFadeStart = 0;
+        invalidateSelf();
+    }
+
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        mPathDirty = true;
+        for (int i = 0; i < 4; i++) {
+            mShaders[i] = null;
+        }
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        final int to = mIndex;
+        if (to < 0) {
+            return;
+        }
+        float fraction = 1F;
+        if (mFadeStart > 0) {
+            fraction = (SystemClock.uptimeMillis() - mFadeStart) / (float) mState.fadeDuring;
+            if (fraction >= 1F) {
+                fraction = 1F;
+                mFadeStart = 0;
+                mFromIndex = -1;
+            } else {
+                invalidateSelf();
+            }
+        }
+        final int from = fraction < 1F ? mFromIndex : to;
+        ensurePath();
+
+        if (mState.hasGradient(to) || mState.hasGradient(from)) {
+            mFillPaint.setShader(fraction < 1F
+                    ? createShader(from, to, fraction)
+                    : obtainShader(to));
+            mFillPaint.setColor(Color.BLACK);
+            mFillPaint.setAlpha(mAlpha);
+        } else {
+            mFillPaint.setShader(null);
+            mFillPaint.setColor(modulateAlpha(lerp(mState.value(SOLID_COLOR, from), mState.value(SOLID_COLOR, to), fraction)));
+        }
+        canvas.drawPath(mPath, mFillPaint);
+
+        if (mState.strokeWidth > 0) {
+            mStrokePaint.setStrokeWidth(mState.strokeWidth);
+            mStrokePaint.setColor(modulateAlpha(lerp(mState.value(STROKE_COLOR, from), mState.value(STROKE_COLOR, to), fraction)));
+            canvas.drawPath(mPath, mStrokePaint);
+        }
+    }
+
+    private void ensurePath() {
+        if (!mPathDirty) {
+            return;
+        }
+        mPathDirty = false;
+        //与GradientDrawable一致 , 边框画在内缩一半线宽的位置
+        final float inset = mState.strokeWidth * 0.5F;
+        mRect.set(getBounds());
+        mRect.inset(inset, inset);
+        mPath.reset();
+        mPath.addRoundRect(mRect, mState.radii, Path.Direction.CW);
+    }
+
+    /**
+     * 稳定状态下的渐变 , 优先使用本Drawable持有的 , 其次从{@link ShaderCache}中共享
+     *
+     * @param index
+     * @return
+     */
+    private Shader obtainShader(int index) {
+        Shader shader = mShaders[index];
+        if (null == shader) {
+            shader = ShaderCache.obtain(gradientColors(index, index, 1F),
+                    processOrientation(mState.value(GRADIENT_DIRECTION, index)), mRect);
+            mShaders[index] = shader;
+        }
+        return shader;
+    }
+
+    /**
+     * fadeDuring过程中的中间帧 , 每帧颜色都不同 , 不进入缓存
+     *
+     * @param from
+     * @param to
+     * @param fraction
+     * @return
+     */
+    private Shader createShader(int from, int to, float fraction) {
+        return ShaderCache.create(gradientColors(from, to, fraction),
+                processOrientation(mState.value(GRADIENT_DIRECTION, to)), mRect);
+    }
+
+    /**
+     * 渐变的颜色插值 , 未配置中间颜色时按起始、结束颜色的中间值处理
+     *
+     * @param from
+     * @param to
+     * @param fraction
+     * @return
+     */
+    private int[] gradientColors(int from, int to, float fraction) {
+        if (from == to && NULL == mState.value(GRADIENT_CENTER_COLOR, to)) {
+            return new int[]{mState.gradientColor(GRADIENT_START_COLOR, to), mState.gradientColor(GRADIENT_END_COLOR, to)};
+        }
+        return new int[]{lerp(mState.gradientColor(GRADIENT_START_COLOR, from), mState.gradientColor(GRADIENT_START_COLOR, to), fraction),
+                lerp(mState.gradientCenter(from), mState.gradientCenter(to), fraction),
+                lerp(mState.gradientColor(GRADIENT_END_COLOR, from), mState.gradientColor(GRADIENT_END_COLOR, to), fraction)};
+    }
+
+    /**
+     * 非渐变状态作为插值一端时使用solid颜色
+     *
+     * @param color
+     * @return
+     */
+    private int modulateAlpha(int color) {
+        if (NULL == color) {
+            return Color.TRANSPARENT;
+        }
+        int alpha = Color.alpha(color) * (mAlpha + (mAlpha >> 7)) >> 8;
+        return (color & 0x00FFFFFF) | (alpha << 24);
+    }
+
+    private static int lerp(int from, int to, float fraction) {
+        if (fraction >= 1F || from == to) {
+            return to;
+        }
+        from = NULL == from ? Color.TRANSPARENT : from;
+        to = NULL == to ? Color.TRANSPARENT : to;
+        int a = (int) (Color.alpha(from) + (Color.alpha(to) - Color.alpha(from)) * fraction);
+        int r = (int) (Color.red(from) + (Color.red(to) - Color.red(from)) * fraction);
+        int g = (int) (Color.green(from) + (Color.green(to) - Color.green(from)) * fraction);
+        int b = (int) (Color.blue(from) + (Color.blue(to) - Color.blue(from)) * fraction);
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    /**
+     * process orientation
+     *
+     * @param direction
+     * @return
+     */
+    static GradientDrawable.Orientation processOrientation(int direction) {
+        switch (direction) {
+            case 0:
+                return GradientDrawable.Orientation.TOP_BOTTOM;
+            case 1:
+                return GradientDrawable.Orientation.LEFT_RIGHT;
+            case 2:
+                return GradientDrawable.Orientation.TL_BR;
+            case 3:
+                return GradientDrawable.Orientation.BL_TR;
+            default:
+                return GradientDrawable.Orientation.TOP_BOTTOM;
+        }
+    }
+
+    @Override
+    public void getOutline(@NonNull Outline outline) {
+        //5.0+ Z轴升降的阴影
+        final float[] r = mState.radii;
+        if (r[0] == r[2] && r[0] == r[4] && r[0] == r[6]) {
+            outline.setRoundRect(getBounds(), r[0]);
+        } else {
+            ensurePath();
+            outline.setConvexPath(mPath);
+        }
+        outline.setAlpha(mIndex < 0 ? 0F : mAlpha / 255F);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (alpha != mAlpha) {
+            mAlpha = alpha;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return mAlpha;
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        mFillPaint.setColorFilter(colorFilter);
+        mStrokePaint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public int getChangingConfigurations() {
+        return super.getChangingConfigurations() | mState.changingConfigurations;
+    }
+
+    @Nullable
+    @Override
+    public ConstantState getConstantState() {
+        mState.changingConfigurations = getChangingConfigurations();
+        return mState;
+    }
+
+    @NonNull
+    @Override
+    public Drawable mutate() {
+        if (!mMutated && super.mutate() == this) {
+            mState = new ShapeState(mState);
+            mMutated = true;
+        }
+        return this;
+    }
+
+    /**
+     * 不可变的配置 , 多个Drawable共享
+     */
+    static final class ShapeState extends ConstantState {
+        /**
+         * topLeft , topRight , bottomRight , bottomLeft , 每个角x、y两个值
+         */
+        final float[] radii;
+        final int strokeWidth;
+        /**
+         * {@link CompatTextViewSpec#values} , 只读取背景相关的部分
+         */
+        final int[] values;
+        final int fadeDuring;
+        final int fixedIndex;
+        int changingConfigurations;
+
+        ShapeState(CompatTextViewSpec spec, int fixedIndex) {
+            final float[] r = spec.cornerRadius;
+            radii = new float[]{r[0], r[0], r[1], r[1], r[2], r[2], r[3], r[3]};
+            strokeWidth = spec.strokeWidth;
+            //Spec不可变 , 直接共享数组
+            values = spec.values;
+            fadeDuring = spec.fadeDuring;
+            this.fixedIndex = fixedIndex;
+        }
+
+        ShapeState(ShapeState orig) {
+            radii = orig.radii.clone();
+            strokeWidth = orig.strokeWidth;
+            values = orig.values.clone();
+            fadeDuring = orig.fadeDuring;
+            fixedIndex = orig.fixedIndex;
+            changingConfigurations = orig.changingConfigurations;
+        }
+
+        /**
+         * @param offset 如{@link CompatTextViewSpec#SOLID_COLOR}
+         * @param index  default , pressed , selected , disabled
+         * @return
+         */
+        int value(int offset, int index) {
+            return values[offset + index];
+        }
+
+        boolean hasGradient(int index) {
+            return NULL != value(GRADIENT_START_COLOR, index)
+                    || NULL != value(GRADIENT_CENTER_COLOR, index)
+                    || NULL != value(GRADIENT_END_COLOR, index);
+        }
+
+        boolean hasPart(int index) {
+            return hasGradient(index) || NULL != value(SOLID_COLOR, index);
+        }
+
+        int gradientColor(int offset, int index) {
+            if (hasGradient(index)) {
+                int color = value(offset, index);
+                return NULL == color ? Color.TRANSPARENT : color;
+            }
+            //插值时的另一端没有渐变
+            int solid = value(SOLID_COLOR, index);
+            return NULL == solid ? Color.TRANSPARENT : solid;
+        }
+
+        int gradientCenter(int index) {
+            if (hasGradient(index) && NULL != value(GRADIENT_CENTER_COLOR, index)) {
+                return value(GRADIENT_CENTER_COLOR, index);
+            }
+            return lerp(gradientColor(GRADIENT_START_COLOR, index), gradientColor(GRADIENT_END_COLOR, index), 0.5F);
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable() {
+            return new CompatShapeDrawable(this);
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable(@Nullable Resources res) {
+            return new CompatShapeDrawable(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return changingConfigurations;
+        }
+    }
+}
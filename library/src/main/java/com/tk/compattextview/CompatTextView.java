@@ -1,22 +1,35 @@
 package com.tk.compattextview;
 
-import android.animation.ObjectAnimator;
-import android.animation.StateListAnimator;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.content.res.TypedArray;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
-import android.graphics.drawable.DrawableContainer;
-import android.graphics.drawable.GradientDrawable;
 import android.graphics.drawable.RippleDrawable;
-import android.graphics.drawable.StateListDrawable;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+import android.support.annotation.StyleRes;
+import android.support.v4.graphics.drawable.DrawableCompat;
 import android.support.v7.widget.AppCompatTextView;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.Gravity;
 
-import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 /**
  * <pre>
@@ -29,7 +42,10 @@ import java.util.Arrays;
  *         <li>支持上下左右的drawable的对齐方式配置</li>
  *         <li>5.0+配置pressed时点击涟漪效果</li>
  *         <li>5.0+配置pressed时点击lift升降效果</li>
+ *         <li>圆点、数字、短文本角标 , 不需要额外的View</li>
+ *         <li>静态标签渲染为位图后重复绘制</li>
  *     </ol>
+ *     构造函数只访问线程安全的缓存 , 可以配合AsyncLayoutInflater在后台线程加载
  * </pre>
  */
 public class CompatTextView extends AppCompatTextView {
@@ -39,481 +55,1419 @@ public class CompatTextView extends AppCompatTextView {
             {}};
     public static final int DEFAULT_Z_DURING = 120;
     public static final int DEFAULT_Z_MAX_LIFT = 8;
-    private static final int NULL = -2;
+    static final int NULL = -2;
     /**
-     * topLeft , topRight , bottomRight , bottomLeft
+     * RippleDrawable松开后的退出动画时长 , 约300ms
      */
-    private float[] mCornerRadius;
-    private int mStrokeWidth;
+    private static final int RIPPLE_EXIT_DURING = 300;
     /**
-     * default , pressed , selected , disabled
+     * 角标未配置大小时的默认值
      */
-    private int[] mSolidColor;
-    private int[] mStrokeColor;
+    private static final int DEFAULT_BADGE_TEXT_SIZE = 10;
+    private static final int DEFAULT_BADGE_DOT_RADIUS = 4;
+    private static final int BADGE_NONE = 0;
+    private static final int BADGE_DOT = 1;
+    private static final int BADGE_TEXT = 2;
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
     /**
-     * left , top , right , bottom
+     * 默认不统计 , 为null时各处只有一次判空
      */
-    private int[] mTint;
-    private Drawable[] mTintDrawable;
+    private static volatile Metrics sMetrics;
     /**
-     * left , top , right , bottom
+     * 解析后的ctv_*属性 , 同一style的View共享
      */
-    private int[] mDrawableAlign;
+    private CompatTextViewSpec mSpec;
     /**
-     * default , pressed , selected , disabled
+     * 构造时来自android:textColor或textViewStyle的文本颜色 , 配置中未设置的文本颜色回退到这里 ,
+     * 而不是上一个配置设置的颜色
      */
-    private int[] mGradientStartColor;
-    private int[] mGradientCenterColor;
-    private int[] mGradientEndColor;
+    private ColorStateList mOriginalTextColors;
     /**
-     * gradient directions
-     * default , pressed , selected , disabled
+     * 预先构建的两种背景 , setSelected和setEnabled时直接切换
      */
-    private int[] mGradientDirection;
+    private Drawable mRippleBackground;
+    private Drawable mStateListBackground;
     /**
-     * SelectDrawable FadeDuration
+     * left , top , right , bottom , 避免getCompoundDrawables()每次分配新数组 ,
+     * start、end在设置和布局方向变化时转换为left、right
      */
-    private int mFadeDuring = 0;
+    private Drawable[] mCompoundDrawables;
+    private boolean mRelativeDrawables;
     /**
-     * in pressed config
+     * 加载配置的Drawable时的uiMode , 变化时drawable-night中可能是另一个文件
      */
-    private boolean mRipple = true;
-    private boolean mZ = false;
-    private int mZDuring = DEFAULT_Z_DURING;
-    private int mZMaxLift = DEFAULT_Z_MAX_LIFT;
+    private int mUiMode;
+    /**
+     * 上一次偏移Drawable时的Layout、宽度、高度、文本高度 , 均未变化时不再重新计算
+     */
+    private Layout mOffsetLayout;
+    private int mOffsetWidth;
+    private int mOffsetHeight;
+    private int mOffsetTextHeight;
+    /**
+     * 后台线程完成的文本测量 , 文本变化后失效
+     */
+    private PrecomputedLayout mPrecomputed;
+    private CharSequence mPendingText;
+    /**
+     * {@link #applySpec(CompatTextViewSpec)}期间合并requestLayout
+     */
+    private boolean mBlockLayoutRequests;
+    private boolean mLayoutRequested;
+    /**
+     * {@link #bindAsync(CompatTextViewSpec, Executor)}等待应用的配置 , 只在主线程读写
+     */
+    private CompatTextViewSpec mPendingSpec;
+    /**
+     * 按下、角标和快照只有少数View会用到 , 第一次用到时才创建 , 其他View只多3个空引用
+     */
+    private PressTracker mPress;
+    private Badge mBadge;
+    private Snapshot mSnapshot;
 
     public CompatTextView(Context context) {
         super(context);
+        init(context, null, 0);
     }
 
     public CompatTextView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        init(context, attrs);
+        init(context, attrs, 0);
     }
 
+    /**
+     * @param context
+     * @param attrs
+     * @param defStyleAttr 同时用于ctv_*属性 , 未配置时使用主题中的compatTextViewStyle
+     */
     public CompatTextView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        init(context, attrs);
-    }
-
-    private void init(Context context, AttributeSet attrs) {
-        mCornerRadius = new float[4];
-        mSolidColor = new int[4];
-        mStrokeColor = new int[4];
-        mTint = new int[4];
-        mTintDrawable = new Drawable[4];
-        mDrawableAlign = new int[4];
-        mGradientStartColor = new int[4];
-        mGradientCenterColor = new int[4];
-        mGradientEndColor = new int[4];
-        mGradientDirection = new int[4];
-
-        TypedArray array = context.obtainStyledAttributes(attrs, R.styleable.CompatTextView);
-        //初始化圆角参数
-        initRadius(array);
-        //初始化边框参数
-        initStroke(array);
-        //初始化实心颜色参数
-        initSolidColor(array);
+        init(context, attrs, defStyleAttr);
+    }
+
+    private void init(Context context, AttributeSet attrs, int defStyleAttr) {
+        final Metrics metrics = sMetrics;
+        final long start = null == metrics ? 0 : System.nanoTime();
+        //TextView自身的属性仍然来自textViewStyle , compatTextViewStyle只提供ctv_*属性的默认值
+        mSpec = CompatTextViewSpec.obtain(context, attrs, defStyleAttr, CompatTextViewSpec.resolveDefaultStyle(context));
+        mOriginalTextColors = getTextColors();
+        mUiMode = context.getResources().getConfiguration().uiMode;
         //初始化文本颜色参数
-        initTextColor(array);
-        //初始化Tint参数
-        initTint(array);
+        initTextColor();
         //初始化Tint Drawable参数
-        initTintDrawable(array);
-        //初始化Drawable对其方式参数
-        initAlign(array);
-        //初始化渐变参数
-        initGradient(array);
-        //初始化5.0+参数
-        initLollipop(array);
-        mFadeDuring = array.getInt(R.styleable.CompatTextView_ctv_fadeDuring, 0);
-
-        array.recycle();
-
-        Drawable[] drawables = getCompoundDrawables();
-        setCompoundDrawables(null == mTintDrawable[0] ? drawables[0] : mTintDrawable[0],
-                null == mTintDrawable[1] ? drawables[1] : mTintDrawable[1],
-                null == mTintDrawable[2] ? drawables[2] : mTintDrawable[2],
-                null == mTintDrawable[3] ? drawables[3] : mTintDrawable[3]);
+        setCompoundDrawables(initTintDrawable(0, compoundDrawable(0)),
+                initTintDrawable(1, compoundDrawable(1)),
+                initTintDrawable(2, compoundDrawable(2)),
+                initTintDrawable(3, compoundDrawable(3)));
 
-        Drawable drawable = processBackgroundDrawable();
-        if (null != drawable) {
-            setBackgroundDrawable(drawable);
-        }
+        refreshBackgroundDrawable();
         processZ();
+        if (null != metrics) {
+            metrics.onInit(this, System.nanoTime() - start);
+        }
     }
 
-    private void processZ() {
-        if (mZ && Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP) {
-            StateListAnimator animator = new StateListAnimator();
-            ObjectAnimator lift = ObjectAnimator.ofFloat(this, "translationZ", 0, mZMaxLift)
-                    .setDuration(mZDuring);
-            ObjectAnimator drop = ObjectAnimator.ofFloat(this, "translationZ", 0)
-                    .setDuration(mZDuring);
+    /**
+     * 代码中修改配置 , 通过{@link CompatTextViewSpec.Builder#commit()}一次性应用
+     *
+     * @return
+     */
+    public CompatTextViewSpec.Builder edit() {
+        return new CompatTextViewSpec.Builder(mSpec, this);
+    }
+
+    /**
+     * 当前的配置
+     *
+     * @return
+     */
+    public CompatTextViewSpec getSpec() {
+        return mSpec;
+    }
+
+    /**
+     * 设置全局的性能统计 , null时关闭
+     *
+     * @param metrics
+     */
+    public static void setMetrics(@Nullable Metrics metrics) {
+        sMetrics = metrics;
+    }
+
+    @Nullable
+    public static Metrics getMetrics() {
+        return sMetrics;
+    }
 
-            animator.addState(STATES[1], lift);
-            animator.addState(STATES[3], drop);
-            setStateListAnimator(animator);
+    static void reportCache(int cache, boolean hit) {
+        final Metrics metrics = sMetrics;
+        if (null != metrics) {
+            metrics.onCacheResult(cache, hit);
         }
     }
 
+    static void reportDrawableCreated(int type) {
+        final Metrics metrics = sMetrics;
+        if (null != metrics) {
+            metrics.onDrawableCreated(type);
+        }
+    }
 
     /**
-     * init radius
+     * 在后台线程构建背景和Drawable , 完成后在主线程一次性应用 , 需要在主线程调用 ,
+     * 多次调用时只应用最后一次的配置
      *
-     * @param array
+     * @param spec
+     * @param executor
      */
-    private void initRadius(TypedArray array) {
-        float r = array.getDimension(R.styleable.CompatTextView_ctv_radius, 0);
-        if (r > 0) {
-            Arrays.fill(mCornerRadius, r);
+    public void bindAsync(@NonNull final CompatTextViewSpec spec, @NonNull Executor executor) {
+        if (spec == mSpec) {
+            mPendingSpec = null;
             return;
         }
-        mCornerRadius[0] = array.getDimension(R.styleable.CompatTextView_ctv_topLeftRadius, 0);
-        mCornerRadius[1] = array.getDimension(R.styleable.CompatTextView_ctv_topRightRadius, 0);
-        mCornerRadius[2] = array.getDimension(R.styleable.CompatTextView_ctv_bottomRightRadius, 0);
-        mCornerRadius[3] = array.getDimension(R.styleable.CompatTextView_ctv_bottomLeftRadius, 0);
+        mPendingSpec = spec;
+        final Context context = getContext();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final PreparedSpec prepared = PreparedSpec.prepare(context, spec);
+                MAIN.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (spec == mPendingSpec) {
+                            applySpec(spec, prepared);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 当前影响换行和行高的文字参数 , 用于在后台线程构建{@link PrecomputedLayout}
+     *
+     * @return
+     */
+    @NonNull
+    public PrecomputedLayout.Params getTextMetricsParams() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return new PrecomputedLayout.Params(getPaint(), getLineSpacingMultiplier(), getLineSpacingExtra(),
+                    getIncludeFontPadding(), getBreakStrategy(), getHyphenationFrequency());
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            return new PrecomputedLayout.Params(getPaint(), getLineSpacingMultiplier(), getLineSpacingExtra(),
+                    getIncludeFontPadding(), 0, 0);
+        }
+        //4.1以下无法获取行间距 , 按默认值处理
+        return new PrecomputedLayout.Params(getPaint(), 1F, 0F, true, 0, 0);
     }
 
     /**
-     * init stroke
+     * 设置后台线程测量好的文本 , Drawable对齐直接使用其中的Layout
      *
-     * @param array
+     * @param precomputed
+     * @throws IllegalArgumentException 文字参数与当前不一致
      */
-    private void initStroke(TypedArray array) {
-        mStrokeWidth = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_strokeWidth, 0);
-        // default color
-        mStrokeColor[0] = array.getColor(R.styleable.CompatTextView_ctv_strokeColor, Color.GRAY);
-        mStrokeColor[1] = array.getColor(R.styleable.CompatTextView_ctv_strokePressedColor, mStrokeColor[0]);
-        mStrokeColor[2] = array.getColor(R.styleable.CompatTextView_ctv_strokeSelectedColor, mStrokeColor[0]);
-        mStrokeColor[3] = array.getColor(R.styleable.CompatTextView_ctv_strokeDisabledColor, mStrokeColor[0]);
+    public void setPrecomputedText(@NonNull PrecomputedLayout precomputed) {
+        if (!precomputed.getParams().equals(getTextMetricsParams())) {
+            throw new IllegalArgumentException("PrecomputedLayout's parameters don't match the parameters of this CompatTextView");
+        }
+        mPrecomputed = precomputed;
+        mOffsetWidth = NULL;
+        setText(precomputed.getText());
     }
 
     /**
-     * init solid color
+     * 在后台线程测量文本 , 完成后在主线程设置 , 需要在主线程调用 , 多次调用时只设置最后一次的文本 ,
+     * 尚未测量过宽度时直接设置
      *
-     * @param array
+     * @param text
+     * @param executor
      */
-    private void initSolidColor(TypedArray array) {
-        mSolidColor[0] = array.getColor(R.styleable.CompatTextView_ctv_solidColor, NULL);
-        mSolidColor[1] = array.getColor(R.styleable.CompatTextView_ctv_solidPressedColor, NULL);
-        mSolidColor[2] = array.getColor(R.styleable.CompatTextView_ctv_solidSelectedColor, NULL);
-        mSolidColor[3] = array.getColor(R.styleable.CompatTextView_ctv_solidDisabledColor, NULL);
+    public void setTextAsync(@NonNull final CharSequence text, @NonNull Executor executor) {
+        final int width = getMeasuredWidth() - getCompoundPaddingLeft() - getCompoundPaddingRight();
+        if (width <= 0) {
+            setText(text);
+            return;
+        }
+        mPendingText = text;
+        final PrecomputedLayout.Params params = getTextMetricsParams();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final PrecomputedLayout precomputed = PrecomputedLayout.create(text, params, width);
+                MAIN.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (text != mPendingText) {
+                            return;
+                        }
+                        mPendingText = null;
+                        if (params.equals(getTextMetricsParams())) {
+                            setPrecomputedText(precomputed);
+                        } else {
+                            //等待期间修改了字号等参数
+                            setText(text);
+                        }
+                    }
+                });
+            }
+        });
     }
 
     /**
-     * init text color
+     * 在后台线程预先构建背景和Drawable并放入缓存 , 之后加载相同配置的CompatTextView时直接命中
      *
-     * @param array
+     * @param context
+     * @param spec
+     * @param executor
      */
-    private void initTextColor(TypedArray array) {
-        int[] colors = new int[4];
-        colors[3] = array.getColor(R.styleable.CompatTextView_ctv_textColor, getTextColors().getDefaultColor());
-        colors[1] = array.getColor(R.styleable.CompatTextView_ctv_textPressedColor, colors[3]);
-        colors[0] = array.getColor(R.styleable.CompatTextView_ctv_textSelectedColor, colors[3]);
-        colors[2] = array.getColor(R.styleable.CompatTextView_ctv_textDisabledColor, colors[3]);
-        setTextColor(new ColorStateList(STATES, colors));
+    public static void prefetch(@NonNull final Context context, @NonNull final CompatTextViewSpec spec,
+                                @NonNull Executor executor) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                PreparedSpec.prepare(context, spec);
+            }
+        });
+    }
+
+    /**
+     * 预先解析style并构建背景和Drawable
+     *
+     * @param context
+     * @param style
+     * @param executor
+     */
+    public static void prefetch(@NonNull final Context context, @StyleRes final int style,
+                                @NonNull Executor executor) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                PreparedSpec.prepare(context, CompatTextViewSpec.obtain(context, null, 0, style));
+            }
+        });
     }
 
     /**
-     * init tint color
+     * 列表中复用时切换配置 , 与当前配置比较后只更新不同的部分 :
+     * 文本颜色、背景和着色只在变化时修改 , 并且直接修改已有的背景和Drawable而不是重新获取 ,
+     * Drawable资源、尺寸、ctv_rasterizeDrawables或是否有背景变化时才重新获取
      *
-     * @param array
+     * @param spec
      */
-    private void initTint(TypedArray array) {
-        mTint[0] = array.getColor(R.styleable.CompatTextView_ctv_tintLeft, NULL);
-        mTint[1] = array.getColor(R.styleable.CompatTextView_ctv_tintTop, NULL);
-        mTint[2] = array.getColor(R.styleable.CompatTextView_ctv_tintRight, NULL);
-        mTint[3] = array.getColor(R.styleable.CompatTextView_ctv_tintBottom, NULL);
+    public void bind(@NonNull CompatTextViewSpec spec) {
+        mPendingSpec = null;
+        final CompatTextViewSpec old = mSpec;
+        if (spec == old) {
+            return;
+        }
+        mBlockLayoutRequests = true;
+        mLayoutRequested = false;
+        try {
+            mSpec = spec;
+            if (!old.sameGroup(spec, CompatTextViewSpec.TEXT_COLOR)) {
+                initTextColor();
+            }
+
+            //逐个比较 , 不分配数组
+            final Drawable left = bindTintDrawable(0, old, compoundDrawable(0));
+            final Drawable top = bindTintDrawable(1, old, compoundDrawable(1));
+            final Drawable right = bindTintDrawable(2, old, compoundDrawable(2));
+            final Drawable bottom = bindTintDrawable(3, old, compoundDrawable(3));
+            if (left != compoundDrawable(0) || top != compoundDrawable(1)
+                    || right != compoundDrawable(2) || bottom != compoundDrawable(3)) {
+                setCompoundDrawables(left, top, right, bottom);
+            }
+            if (!old.sameGroup(spec, CompatTextViewSpec.DRAWABLE_ALIGN)) {
+                //只有对齐方式变化时不会重新布局 , 直接重新偏移
+                mOffsetWidth = NULL;
+                offsetDrawable();
+            }
+
+            if (!old.sameBackground(spec)) {
+                if (CompatShapeDrawable.hasPart(old)
+                        && CompatShapeDrawable.hasPart(spec)
+                        && canRipple(old) == canRipple(spec)) {
+                    //背景的结构不变 , 已构建的背景直接修改 , 未构建的之后按新配置获取
+                    if (null != mStateListBackground) {
+                        ((CompatShapeDrawable) mStateListBackground).setSpec(spec);
+                    }
+                    if (null != mRippleBackground) {
+                        bindRippleDrawable((RippleDrawable) mRippleBackground, spec);
+                    }
+                    refreshBackgroundDrawable();
+                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                        invalidateOutline();
+                    }
+                } else {
+                    applyBackground(null);
+                }
+            }
+            applyZ(old);
+            applyBadge(old);
+            applySnapshot();
+        } finally {
+            mBlockLayoutRequests = false;
+        }
+        if (mLayoutRequested) {
+            mLayoutRequested = false;
+            super.requestLayout();
+        }
     }
 
     /**
-     * init tint drawable
+     * 只有着色不同时在原有的Drawable上重新着色
      *
-     * @param array
+     * @param index
+     * @param old
+     * @param current
+     * @return
      */
-    private void initTintDrawable(TypedArray array) {
-        mTintDrawable[0] = TintUtils.getTintDrawable(getContext(), array, R.styleable.CompatTextView_ctv_tintDrawableLeft);
-        if (null != mTintDrawable[0]) {
-            int width = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableLeftWidth, mTintDrawable[0].getIntrinsicWidth());
-            int height = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableLeftHeight, mTintDrawable[0].getIntrinsicHeight());
-            mTintDrawable[0] = wrapperTintDrawable(mTint[0], mTintDrawable[0], width, height);
+    private Drawable bindTintDrawable(int index, CompatTextViewSpec old, Drawable current) {
+        if (null != current
+                && !mSpec.rasterize
+                && !old.rasterize
+                && 0 != mSpec.tintDrawable(index)
+                && mSpec.tintDrawable(index) == old.tintDrawable(index)
+                && mSpec.tintDrawableWidth(index) == old.tintDrawableWidth(index)
+                && mSpec.tintDrawableHeight(index) == old.tintDrawableHeight(index)
+                && mSpec.tint(index) != old.tint(index)
+                && NULL != mSpec.tint(index)
+                && NULL != old.tint(index)) {
+            //当前的Drawable与缓存中的共享ConstantState
+            DrawableCompat.setTint(current.mutate(), mSpec.tint(index));
+            return current;
         }
-        mTintDrawable[1] = TintUtils.getTintDrawable(getContext(), array, R.styleable.CompatTextView_ctv_tintDrawableTop);
-        if (null != mTintDrawable[1]) {
-            int width = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableTopWidth, mTintDrawable[1].getIntrinsicWidth());
-            int height = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableTopHeight, mTintDrawable[1].getIntrinsicHeight());
-            mTintDrawable[1] = wrapperTintDrawable(mTint[1], mTintDrawable[1], width, height);
+        return applyTintDrawable(index, old, current, null);
+    }
+
+    /**
+     * 涟漪颜色和两层背景在原有实例上修改
+     *
+     * @param ripple
+     * @param spec
+     */
+    @RequiresApi(Build.VERSION_CODES.LOLLIPOP)
+    private static void bindRippleDrawable(RippleDrawable ripple, CompatTextViewSpec spec) {
+        //涟漪颜色保存在共享的ConstantState中
+        ripple.mutate();
+        ripple.setColor(ColorStateLists.valueOf(spec.solidColor(1)));
+        ((CompatShapeDrawable) ripple.getDrawable(0)).setSpec(spec);
+        ((CompatShapeDrawable) ripple.findDrawableByLayerId(android.R.id.mask)).setSpec(spec);
+    }
+
+    void applySpec(@NonNull CompatTextViewSpec spec) {
+        applySpec(spec, null);
+    }
+
+    /**
+     * 应用新的配置 , 背景只重建一次 , setCompoundDrawables和requestLayout只调用一次
+     *
+     * @param spec
+     * @param prepared 后台线程构建好的Drawable , null时在当前线程构建
+     */
+    private void applySpec(@NonNull CompatTextViewSpec spec, @Nullable PreparedSpec prepared) {
+        //同步修改后 , 之前未完成的bindAsync不再应用
+        mPendingSpec = null;
+        final CompatTextViewSpec old = mSpec;
+        if (spec == old) {
+            return;
         }
-        mTintDrawable[2] = TintUtils.getTintDrawable(getContext(), array, R.styleable.CompatTextView_ctv_tintDrawableRight);
-        if (null != mTintDrawable[2]) {
-            int width = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableRightWidth, mTintDrawable[2].getIntrinsicWidth());
-            int height = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableRightHeight, mTintDrawable[2].getIntrinsicHeight());
-            mTintDrawable[2] = wrapperTintDrawable(mTint[2], mTintDrawable[2], width, height);
+        mBlockLayoutRequests = true;
+        mLayoutRequested = false;
+        try {
+            mSpec = spec;
+            initTextColor();
+
+            setCompoundDrawables(applyTintDrawable(0, old, compoundDrawable(0), prepared),
+                    applyTintDrawable(1, old, compoundDrawable(1), prepared),
+                    applyTintDrawable(2, old, compoundDrawable(2), prepared),
+                    applyTintDrawable(3, old, compoundDrawable(3), prepared));
+
+            applyBackground(prepared);
+            applyZ(old);
+            applyBadge(old);
+            applySnapshot();
+        } finally {
+            mBlockLayoutRequests = false;
         }
-        mTintDrawable[3] = TintUtils.getTintDrawable(getContext(), array, R.styleable.CompatTextView_ctv_tintDrawableBottom);
-        if (null != mTintDrawable[3]) {
-            int width = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableBottomWidth, mTintDrawable[3].getIntrinsicWidth());
-            int height = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableBottomHeight, mTintDrawable[3].getIntrinsicHeight());
-            mTintDrawable[3] = wrapperTintDrawable(mTint[3], mTintDrawable[3], width, height);
+        if (mLayoutRequested) {
+            mLayoutRequested = false;
+            super.requestLayout();
         }
     }
 
+    /**
+     * 内存紧张时释放所有缓存(Tint Drawable、背景、ctv_rasterizeDrawables的位图图集、ctv_snapshot的位图、渐变Shader和ColorStateList) ,
+     * 在{@link ComponentCallbacks2#onTrimMemory(int)}中调用
+     *
+     * @param level
+     */
+    public static void trimMemory(int level) {
+        TintUtils.trim(level);
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            BackgroundCache.clear();
+            RasterAtlas.clear();
+            ShaderCache.clear();
+            ColorStateLists.clear();
+            SnapshotCache.clear();
+        }
+    }
 
     /**
-     * tint drawable
+     * 重新获取背景 , 保留其他方式设置的背景
      *
-     * @param color
-     * @param drawable
-     * @param width
-     * @param height
+     * @param prepared
      */
-    private Drawable wrapperTintDrawable(int color, @NonNull Drawable drawable, int width, int height) {
-        if (color != NULL) {
-            drawable = TintUtils.tint(drawable, color);
+    private void applyBackground(@Nullable PreparedSpec prepared) {
+        final Drawable background = getBackground();
+        final boolean ownBackground = null != background
+                && (background == mRippleBackground || background == mStateListBackground);
+        mRippleBackground = null == prepared ? null : prepared.rippleBackground;
+        mStateListBackground = null == prepared ? null : prepared.stateListBackground;
+        Drawable drawable = processBackgroundDrawable();
+        if (null != drawable || ownBackground) {
+            setBackgroundDrawable(drawable);
+        }
+    }
+
+    private void applyZ(CompatTextViewSpec old) {
+        if (old.z && !mSpec.z) {
+            if (Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP) {
+                setStateListAnimator(null);
+            }
+        } else if (mSpec.z != old.z || mSpec.zDuring != old.zDuring || mSpec.zMaxLift != old.zMaxLift) {
+            processZ();
+        }
+    }
+
+    private void applyBadge(CompatTextViewSpec old) {
+        if (!hasBadge()) {
+            return;
+        }
+        if (old.badgeTextSize != mSpec.badgeTextSize) {
+            mBadge.textWidth = NULL;
+        }
+        if (!old.sameBadgeStyle(mSpec) || !old.sameGroup(mSpec, CompatTextViewSpec.BADGE_COLOR)) {
+            invalidate();
+        }
+    }
+
+    private void applySnapshot() {
+        if (mSpec.snapshot) {
+            invalidateSnapshot();
+        } else {
+            releaseSnapshot();
         }
-        drawable.setBounds(0, 0, width, height);
-        return drawable;
     }
 
     /**
-     * init align of drawable
+     * 配置变化时才重新获取Drawable
      *
-     * @param array
+     * @param index
+     * @param old
+     * @param current
+     * @param prepared
+     * @return
      */
-    private void initAlign(TypedArray array) {
-        mDrawableAlign[0] = array.getInt(R.styleable.CompatTextView_ctv_drawableLeftAlign, 1);
-        mDrawableAlign[1] = array.getInt(R.styleable.CompatTextView_ctv_drawableTopAlign, 1);
-        mDrawableAlign[2] = array.getInt(R.styleable.CompatTextView_ctv_drawableRightAlign, 1);
-        mDrawableAlign[3] = array.getInt(R.styleable.CompatTextView_ctv_drawableBottomAlign, 1);
+    private Drawable applyTintDrawable(int index, CompatTextViewSpec old, Drawable current,
+                                       @Nullable PreparedSpec prepared) {
+        if (0 == mSpec.tintDrawable(index)) {
+            //移除之前配置的Drawable , 保留其他方式设置的Drawable
+            return 0 == old.tintDrawable(index) ? current : null;
+        }
+        if (mSpec.tintDrawable(index) == old.tintDrawable(index)
+                && mSpec.tint(index) == old.tint(index)
+                && mSpec.tintDrawableWidth(index) == old.tintDrawableWidth(index)
+                && mSpec.tintDrawableHeight(index) == old.tintDrawableHeight(index)
+                && mSpec.rasterize == old.rasterize) {
+            return current;
+        }
+        Drawable original = 0 == old.tintDrawable(index) ? current : null;
+        if (null != prepared) {
+            return null == prepared.compoundDrawables[index] ? original : prepared.compoundDrawables[index];
+        }
+        return initTintDrawable(index, original);
     }
 
     @Override
-    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
-        super.onSizeChanged(w, h, oldw, oldh);
-        offsetDrawable(getCompoundDrawables()[0],
-                getCompoundDrawables()[1],
-                getCompoundDrawables()[2],
-                getCompoundDrawables()[3]);
+    public void requestLayout() {
+        if (mBlockLayoutRequests) {
+            mLayoutRequested = true;
+            return;
+        }
+        super.requestLayout();
     }
 
     /**
-     * 根据对其方式偏移Drawable
+     * 从{@link LiftAnimators}共享的原型clone , 不可点击时无法按下 , 等到可点击时再设置
+     */
+    private void processZ() {
+        if (mSpec.z && isInteractive() && Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP) {
+            setStateListAnimator(LiftAnimators.obtain(mSpec.zDuring, mSpec.zMaxLift));
+        }
+    }
+
+    /**
+     * init text color , 从{@link ColorStateLists}中共享 , 没有配置文本颜色时恢复构造时的颜色
+     */
+    private void initTextColor() {
+        if (NULL == mSpec.textColor(0) && NULL == mSpec.textColor(1)
+                && NULL == mSpec.textColor(2) && NULL == mSpec.textColor(3)) {
+            if (mOriginalTextColors != getTextColors()) {
+                setTextColor(mOriginalTextColors);
+            }
+            return;
+        }
+        int normal = NULL == mSpec.textColor(0) ? mOriginalTextColors.getDefaultColor() : mSpec.textColor(0);
+        ColorStateList colors = ColorStateLists.obtain(NULL == mSpec.textColor(2) ? normal : mSpec.textColor(2),
+                NULL == mSpec.textColor(1) ? normal : mSpec.textColor(1),
+                NULL == mSpec.textColor(3) ? normal : mSpec.textColor(3),
+                normal);
+        if (colors != getTextColors()) {
+            setTextColor(colors);
+        }
+    }
+
+    /**
+     * init tint drawable , 通过{@link TintUtils}的缓存共享ConstantState ,
+     * 开启ctv_rasterizeDrawables时从{@link RasterAtlas}绘制
+     *
+     * @param index    left , top , right , bottom
+     * @param original 未配置时保留原有的Drawable
+     * @return
+     */
+    private Drawable initTintDrawable(int index, Drawable original) {
+        Drawable drawable = loadTintDrawable(getContext(), mSpec, index);
+        return null == drawable ? original : drawable;
+    }
+
+    /**
+     * 加载配置的Drawable , 不访问View的状态 , 可以在后台线程调用
+     *
+     * @param context
+     * @param spec
+     * @param index
+     * @return 未配置或加载失败时返回null
+     */
+    static Drawable loadTintDrawable(Context context, CompatTextViewSpec spec, int index) {
+        if (0 == spec.tintDrawable(index)) {
+            return null;
+        }
+        if (spec.rasterize) {
+            return RasterAtlas.obtain(context, spec.tintDrawable(index), spec.tint(index),
+                    spec.tintDrawableWidth(index), spec.tintDrawableHeight(index));
+        }
+        return NULL == spec.tint(index)
+                ? TintUtils.getDrawable(context, spec.tintDrawable(index),
+                spec.tintDrawableWidth(index), spec.tintDrawableHeight(index))
+                : TintUtils.getTintDrawable(context, spec.tintDrawable(index), spec.tint(index),
+                spec.tintDrawableWidth(index), spec.tintDrawableHeight(index));
+    }
+
+    @Override
+    public void setCompoundDrawables(Drawable left, Drawable top, Drawable right, Drawable bottom) {
+        super.setCompoundDrawables(left, top, right, bottom);
+        //父类构造函数中也会调用 , 此时成员变量尚未初始化
+        if (null == mCompoundDrawables) {
+            mCompoundDrawables = new Drawable[4];
+        }
+        mCompoundDrawables[0] = left;
+        mCompoundDrawables[1] = top;
+        mCompoundDrawables[2] = right;
+        mCompoundDrawables[3] = bottom;
+        mRelativeDrawables = false;
+        mOffsetWidth = NULL;
+    }
+
+    @Override
+    public void setCompoundDrawablesRelative(Drawable start, Drawable top, Drawable end, Drawable bottom) {
+        super.setCompoundDrawablesRelative(start, top, end, bottom);
+        resolveRelativeDrawables();
+        mRelativeDrawables = true;
+    }
+
+    @Override
+    public void onRtlPropertiesChanged(int layoutDirection) {
+        super.onRtlPropertiesChanged(layoutDirection);
+        //start、end在布局方向确定后才会转换为left、right
+        if (mRelativeDrawables) {
+            resolveRelativeDrawables();
+        }
+    }
+
+    /**
+     * 只在设置和布局方向变化时分配一次数组
+     */
+    private void resolveRelativeDrawables() {
+        final Drawable[] drawables = getCompoundDrawables();
+        if (null == mCompoundDrawables) {
+            mCompoundDrawables = new Drawable[4];
+        }
+        System.arraycopy(drawables, 0, mCompoundDrawables, 0, 4);
+        mOffsetWidth = NULL;
+    }
+
+    @Nullable
+    private Drawable compoundDrawable(int index) {
+        return null == mCompoundDrawables ? null : mCompoundDrawables[index];
+    }
+
+    /**
+     * 声明了configChanges="uiMode"等时不会重建 , 只重新解析引用了资源的颜色 ,
+     * 已有的背景和Drawable在原实例上修改颜色 , 圆角、尺寸、对齐和动画不变 ;
+     * uiMode变化时配置的Drawable按新的uiMode从{@link TintUtils}重新加载
      *
-     * @param left
-     * @param top
-     * @param right
-     * @param bottom
+     * @param newConfig
      */
-    private void offsetDrawable(final Drawable left, final Drawable top,
-                                final Drawable right, final Drawable bottom) {
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        if (null == mSpec) {
+            return;
+        }
+        final CompatTextViewSpec pending = mPendingSpec;
+        bind(mSpec.recolor(getContext()));
+        if (null != pending) {
+            //未完成的bindAsync按新的颜色同步应用 , 后台准备的Drawable不再使用
+            bind(pending.recolor(getContext()));
+        }
+        if (mUiMode != newConfig.uiMode) {
+            mUiMode = newConfig.uiMode;
+            reloadTintDrawables();
+        }
+    }
+
+    /**
+     * 重新加载配置的Drawable , 其他方式设置的Drawable不变
+     */
+    private void reloadTintDrawables() {
+        final Drawable left = reloadTintDrawable(0);
+        final Drawable top = reloadTintDrawable(1);
+        final Drawable right = reloadTintDrawable(2);
+        final Drawable bottom = reloadTintDrawable(3);
+        if (left != compoundDrawable(0) || top != compoundDrawable(1)
+                || right != compoundDrawable(2) || bottom != compoundDrawable(3)) {
+            setCompoundDrawables(left, top, right, bottom);
+        }
+    }
+
+    private Drawable reloadTintDrawable(int index) {
+        final Drawable current = compoundDrawable(index);
+        if (0 == mSpec.tintDrawable(index)) {
+            return current;
+        }
+        final Drawable drawable = loadTintDrawable(getContext(), mSpec, index);
+        return null == drawable ? current : drawable;
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        offsetDrawable();
+    }
+
+    @Override
+    protected void onTextChanged(CharSequence text, int start, int lengthBefore, int lengthAfter) {
+        super.onTextChanged(text, start, lengthBefore, lengthAfter);
+        //同步设置的文本优先 , 父类构造函数中也会调用 , 此时成员变量尚未初始化
+        mPendingText = null;
+        if (null != mPrecomputed && !TextUtils.equals(text, mPrecomputed.getText())) {
+            mPrecomputed = null;
+        }
+        //行数变化时无需等待下一次onLayout
+        offsetDrawable();
+    }
+
+    /**
+     * 根据对齐方式偏移Drawable , 左右两侧按Layout中首行、末行的中心对齐 , 居中时与TextView一致位于View的中心 ,
+     * 行高不一致(如包含不同字号的Span)时同样准确 , Layout和尺寸均未变化时跳过
+     */
+    private void offsetDrawable() {
+        if (null == mSpec || null == mCompoundDrawables) {
+            return;
+        }
         //drawable size must be smaller than total space
         final int width = getMeasuredWidth() - getPaddingLeft() - getPaddingRight();
-        if (null != left && left.getBounds().height() < getLineCount() * getLineHeight()) {
-            int drawableTop = 0;
-            switch (mDrawableAlign[0]) {
-                case 0:
-                    drawableTop = getLineHeight() - getLineCount() * getLineHeight() >> 1;
-                    break;
-                case 2:
-                    drawableTop = -(getLineHeight() - getLineCount() * getLineHeight()) >> 1;
-                    break;
-                default:
-                    break;
-            }
-            left.setBounds(left.getBounds().left,
-                    drawableTop,
-                    left.getBounds().right,
-                    left.getBounds().height() + drawableTop);
+        final int height = getMeasuredHeight();
+        final Layout layout = resolveTextLayout();
+        if (null == layout || 0 == layout.getLineCount()) {
+            //尚未测量 , 等待onLayout
+            return;
         }
-        if (null != top && top.getBounds().width() < width) {
-            int drawableLeft = 0;
-            switch (mDrawableAlign[1]) {
+        final int textHeight = layout.getHeight();
+        if (layout == mOffsetLayout && width == mOffsetWidth
+                && height == mOffsetHeight && textHeight == mOffsetTextHeight) {
+            return;
+        }
+        final Metrics metrics = sMetrics;
+        final long start = null == metrics ? 0 : System.nanoTime();
+        mOffsetLayout = layout;
+        mOffsetWidth = width;
+        mOffsetHeight = height;
+        mOffsetTextHeight = textHeight;
+
+        final Drawable[] drawables = mCompoundDrawables;
+        //TextView将左右两侧的Drawable居中于上下compound padding之间 , 换算为相对该中心的偏移
+        final int compoundTop = getCompoundPaddingTop();
+        final int center = compoundTop + (height - compoundTop - getCompoundPaddingBottom()) / 2;
+        final int textTop = getExtendedPaddingTop() + verticalOffset(layout, height) - center;
+        offsetVertical(drawables[0], mSpec.drawableAlign(0), layout, textTop);
+        offsetHorizontal(drawables[1], mSpec.drawableAlign(1), width);
+        offsetVertical(drawables[2], mSpec.drawableAlign(2), layout, textTop);
+        offsetHorizontal(drawables[3], mSpec.drawableAlign(3), width);
+        if (null != metrics) {
+            metrics.onOffsetDrawable(this, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 宽度与当前文本区域一致时优先使用{@link PrecomputedLayout} , 不需要等待TextView构建Layout ,
+     * 重新布局时Layout不变 , 对齐结果可以直接复用 ;
+     * TextView的Layout与之高度不同时说明设置后又修改了字号等参数 , 不再使用
+     *
+     * @return
+     */
+    private Layout resolveTextLayout() {
+        final Layout layout = getLayout();
+        if (null != mPrecomputed
+                && mPrecomputed.getWidth() == getMeasuredWidth() - getCompoundPaddingLeft() - getCompoundPaddingRight()
+                && (null == layout || layout.getHeight() == mPrecomputed.getHeight())) {
+            return mPrecomputed.getLayout();
+        }
+        return layout;
+    }
+
+    /**
+     * 与TextView一致 , 按gravity计算文本在上下extended padding之间的偏移
+     *
+     * @param layout
+     * @param height
+     * @return
+     */
+    private int verticalOffset(Layout layout, int height) {
+        final int gravity = getGravity() & Gravity.VERTICAL_GRAVITY_MASK;
+        final int box = height - getExtendedPaddingTop() - getExtendedPaddingBottom();
+        final int textHeight = layout.getHeight();
+        if (Gravity.TOP == gravity || textHeight >= box) {
+            return 0;
+        }
+        return Gravity.BOTTOM == gravity ? box - textHeight : box - textHeight >> 1;
+    }
+
+    /**
+     * 左右两侧Drawable的纵向偏移 , 比文本更高时保持居中
+     *
+     * @param drawable
+     * @param align    首行 , View中心 , 末行
+     * @param layout
+     * @param textTop  Layout顶部相对Drawable默认中心的位置
+     */
+    private static void offsetVertical(Drawable drawable, int align, Layout layout, int textTop) {
+        if (null == drawable) {
+            return;
+        }
+        final Rect bounds = drawable.getBounds();
+        int drawableTop = 0;
+        if (bounds.height() < layout.getHeight()) {
+            final int line;
+            switch (align) {
                 case 0:
-                    drawableLeft = top.getBounds().width() - width >> 1;
+                    line = 0;
                     break;
                 case 2:
-                    drawableLeft = -(top.getBounds().width() - width) >> 1;
+                    line = layout.getLineCount() - 1;
                     break;
                 default:
+                    //居中保持TextView的默认位置 , 即View的中心
+                    line = -1;
                     break;
             }
-            top.setBounds(drawableLeft,
-                    top.getBounds().top,
-                    top.getBounds().width() + drawableLeft,
-                    top.getBounds().bottom);
-        }
-        if (null != right && right.getBounds().height() < getLineCount() * getLineHeight()) {
-            int drawableTop = 0;
-            switch (mDrawableAlign[2]) {
-                case 0:
-                    drawableTop = getLineHeight() - getLineCount() * getLineHeight() >> 1;
-                    break;
-                case 2:
-                    drawableTop = -(getLineHeight() - getLineCount() * getLineHeight()) >> 1;
-                    break;
-                default:
-                    break;
+            if (line >= 0) {
+                drawableTop = textTop + (layout.getLineTop(line) + layout.getLineBottom(line) >> 1);
             }
-            right.setBounds(right.getBounds().left,
+        }
+        if (bounds.top != drawableTop) {
+            drawable.setBounds(bounds.left,
                     drawableTop,
-                    right.getBounds().right,
-                    right.getBounds().height() + drawableTop);
+                    bounds.right,
+                    bounds.height() + drawableTop);
         }
-        if (null != bottom && bottom.getBounds().width() < width) {
-            int drawableLeft = 0;
-            switch (mDrawableAlign[3]) {
-                case 0:
-                    drawableLeft = bottom.getBounds().width() - width >> 1;
-                    break;
-                case 2:
-                    drawableLeft = -(bottom.getBounds().width() - width) >> 1;
-                    break;
-                default:
-                    break;
-            }
-            bottom.setBounds(drawableLeft,
-                    bottom.getBounds().top,
-                    bottom.getBounds().width() + drawableLeft,
-                    bottom.getBounds().bottom);
+    }
+
+    /**
+     * 上下两侧Drawable的横向偏移
+     *
+     * @param drawable
+     * @param align
+     * @param width
+     */
+    private static void offsetHorizontal(Drawable drawable, int align, int width) {
+        if (null == drawable) {
+            return;
+        }
+        final Rect bounds = drawable.getBounds();
+        if (bounds.width() >= width) {
+            return;
+        }
+        int drawableLeft = 0;
+        switch (align) {
+            case 0:
+                drawableLeft = bounds.width() - width >> 1;
+                break;
+            case 2:
+                drawableLeft = -(bounds.width() - width) >> 1;
+                break;
+            default:
+                break;
+        }
+        if (bounds.left != drawableLeft) {
+            drawable.setBounds(drawableLeft,
+                    bounds.top,
+                    bounds.width() + drawableLeft,
+                    bounds.bottom);
         }
     }
 
+    /**
+     * process drawable , 涟漪和StateList两种背景各自只构建一次 , 状态切换时直接复用
+     *
+     * @return RippleDrawable , CompatShapeDrawable or null
+     */
+    private Drawable processBackgroundDrawable() {
+        if (null == mSpec) {
+            //// TODO: 2017/6/20 setEnabled和setSelected会比构造函数先执行？
+            return null;
+        }
+        if (!CompatShapeDrawable.hasPart(mSpec)) {
+            //no CompatTextView config
+            return null;
+        }
+        final Metrics metrics = sMetrics;
+        final long start = null == metrics ? 0 : System.nanoTime();
+        boolean rebuilt = false;
+        //不可点击的View不会进入pressed状态 , 不需要涟漪
+        boolean ripple = isEnabled()
+                && (!isSelected())
+                && isInteractive()
+                && canRipple(mSpec);
+        final Drawable drawable;
+        if (ripple) {
+            if (null == mRippleBackground) {
+                mRippleBackground = obtainBackgroundDrawable(true);
+                rebuilt = true;
+            }
+            drawable = mRippleBackground;
+        } else {
+            if (null == mStateListBackground) {
+                mStateListBackground = obtainBackgroundDrawable(false);
+                rebuilt = true;
+            }
+            drawable = mStateListBackground;
+        }
+        if (null != metrics) {
+            metrics.onProcessBackground(this, System.nanoTime() - start, rebuilt);
+        }
+        return drawable;
+    }
 
     /**
-     * init gradient
+     * 是否可能进入pressed状态 , 包括由可点击的父View传递pressed状态
      *
-     * @param array
+     * @return
      */
-    private void initGradient(TypedArray array) {
-        mGradientStartColor[0] = array.getColor(R.styleable.CompatTextView_ctv_gradientStartColor, NULL);
-        mGradientStartColor[1] = array.getColor(R.styleable.CompatTextView_ctv_gradientStartPressedColor, NULL);
-        mGradientStartColor[2] = array.getColor(R.styleable.CompatTextView_ctv_gradientStartSelectedColor, NULL);
-        mGradientStartColor[3] = array.getColor(R.styleable.CompatTextView_ctv_gradientStartDisabledColor, NULL);
+    private boolean isInteractive() {
+        return isClickable() || isLongClickable() || isDuplicateParentStateEnabled();
+    }
 
-        mGradientCenterColor[0] = array.getColor(R.styleable.CompatTextView_ctv_gradientCenterColor, NULL);
-        mGradientCenterColor[1] = array.getColor(R.styleable.CompatTextView_ctv_gradientCenterPressedColor, NULL);
-        mGradientCenterColor[2] = array.getColor(R.styleable.CompatTextView_ctv_gradientCenterSelectedColor, NULL);
-        mGradientCenterColor[3] = array.getColor(R.styleable.CompatTextView_ctv_gradientCenterDisabledColor, NULL);
+    @Override
+    public void setClickable(boolean clickable) {
+        final boolean interactive = isInteractive();
+        super.setClickable(clickable);
+        onInteractiveChanged(interactive);
+    }
 
-        mGradientEndColor[0] = array.getColor(R.styleable.CompatTextView_ctv_gradientEndColor, NULL);
-        mGradientEndColor[1] = array.getColor(R.styleable.CompatTextView_ctv_gradientEndPressedColor, NULL);
-        mGradientEndColor[2] = array.getColor(R.styleable.CompatTextView_ctv_gradientEndSelectedColor, NULL);
-        mGradientEndColor[3] = array.getColor(R.styleable.CompatTextView_ctv_gradientEndDisabledColor, NULL);
+    @Override
+    public void setLongClickable(boolean longClickable) {
+        final boolean interactive = isInteractive();
+        super.setLongClickable(longClickable);
+        onInteractiveChanged(interactive);
+    }
 
-        mGradientDirection[0] = array.getInt(R.styleable.CompatTextView_ctv_gradientDirection, 0);
-        mGradientDirection[1] = array.getInt(R.styleable.CompatTextView_ctv_gradientDirectionPressed, 0);
-        mGradientDirection[2] = array.getInt(R.styleable.CompatTextView_ctv_gradientDirectionSelected, 0);
-        mGradientDirection[3] = array.getInt(R.styleable.CompatTextView_ctv_gradientDirectionDisabled, 0);
+    @Override
+    public void setDuplicateParentStateEnabled(boolean enabled) {
+        final boolean interactive = isInteractive();
+        super.setDuplicateParentStateEnabled(enabled);
+        onInteractiveChanged(interactive);
+    }
+
+    /**
+     * 第一次可点击时(如setOnClickListener、setDuplicateParentStateEnabled)才构建涟漪背景和Z轴升降动画
+     *
+     * @param interactive 修改前是否可点击
+     */
+    private void onInteractiveChanged(boolean interactive) {
+        //父类构造函数中也会调用 , 此时成员变量尚未初始化
+        if (null == mSpec || interactive == isInteractive()) {
+            return;
+        }
+        refreshBackgroundDrawable();
+        if (!interactive) {
+            processZ();
+            //可点击后需要绘制按下状态 , 不再使用快照
+            releaseSnapshot();
+        }
     }
 
     /**
-     * @param array
+     * 5.0+ pressed和default都有配置时才使用涟漪
+     *
+     * @param spec
+     * @return
      */
-    private void initLollipop(TypedArray array) {
-        mRipple = array.getBoolean(R.styleable.CompatTextView_ctv_ripple, true);
+    static boolean canRipple(CompatTextViewSpec spec) {
+        return android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP
+                && spec.ripple
+                && CompatShapeDrawable.hasPart(spec, 1)
+                && CompatShapeDrawable.hasPart(spec, 0);
+    }
 
-        mZ = array.getBoolean(R.styleable.CompatTextView_ctv_z, false);
-        mZDuring = array.getInt(R.styleable.CompatTextView_ctv_z_during, DEFAULT_Z_DURING);
-        mZMaxLift = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_z_max_lift, DEFAULT_Z_MAX_LIFT);
+    private Drawable obtainBackgroundDrawable(boolean ripple) {
+        return obtainBackgroundDrawable(mSpec, getResources(), ripple);
     }
 
     /**
-     * process drawable
+     * 优先从{@link BackgroundCache}获取 , 不访问View的状态 , 可以在后台线程调用
      *
-     * @return StateListDrawable or null
+     * @param spec
+     * @param res
+     * @param ripple
+     * @return
      */
-    private Drawable processBackgroundDrawable() {
-        if (null == mCornerRadius) {
-            //// TODO: 2017/6/20 setEnabled和setSelected会比构造函数先执行？
-            return null;
+    static Drawable obtainBackgroundDrawable(CompatTextViewSpec spec, Resources res, boolean ripple) {
+        BackgroundCache.Key key = new BackgroundCache.Key(spec, ripple);
+        Drawable drawable = BackgroundCache.get(key, res);
+        if (null != drawable) {
+            return drawable;
+        }
+        drawable = ripple ? generateRippleDrawable(spec) : new CompatShapeDrawable(spec, CompatShapeDrawable.STATEFUL);
+        reportDrawableCreated(Metrics.DRAWABLE_BACKGROUND);
+        BackgroundCache.put(key, drawable);
+        return drawable;
+    }
+
+    /**
+     * 切换到当前状态对应的背景
+     */
+    private void refreshBackgroundDrawable() {
+        Drawable drawable = processBackgroundDrawable();
+        if (null != drawable && drawable != getBackground()) {
+            setBackgroundDrawable(drawable);
+        }
+    }
+
+    /**
+     * 5.0+ pressed时的涟漪效果
+     *
+     * @return
+     */
+    private static Drawable generateRippleDrawable(CompatTextViewSpec spec) {
+        return new RippleDrawable(ColorStateLists.valueOf(spec.solidColor(1)),
+                new CompatShapeDrawable(spec, 0),
+                new CompatShapeDrawable(spec, 1));
+    }
+
+    @Override
+    public void setPressed(boolean pressed) {
+        final boolean changed = pressed != isPressed();
+        super.setPressed(pressed);
+        if (changed && null != mSpec) {
+            onPressChanged(pressed);
         }
-        GradientDrawable enable = generatePartDrawable(0);
-        GradientDrawable pressed = generatePartDrawable(1);
+    }
 
-        if (isEnabled()) {
-            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP
-                    && mRipple
-                    && (!isSelected())
-                    && (null != pressed)
-                    && (null != enable)) {
-                return new RippleDrawable(ColorStateList.valueOf(mSolidColor[1]), enable, pressed);
+    /**
+     * 按下时开始统计帧数 , 松开后等待涟漪、Z轴和渐变动画结束再停止
+     *
+     * @param pressed
+     */
+    private void onPressChanged(boolean pressed) {
+        if (null == mPress) {
+            mPress = new PressTracker();
+        }
+        final PressTracker press = mPress;
+        removeCallbacks(press);
+        if (pressed) {
+            if (!press.tracking) {
+                press.tracking = true;
+                press.frames = 0;
             }
+        } else {
+            postDelayed(press, getPressAnimationDuring());
         }
+    }
 
-        GradientDrawable selected = generatePartDrawable(2);
-        GradientDrawable disabled = generatePartDrawable(3);
-        StateListDrawable stateListDrawable = new StateListDrawable();
-        if (null != selected) {
-            stateListDrawable.addState(STATES[0], selected);
+    private void settlePress() {
+        final PressTracker press = mPress;
+        if (null == press) {
+            return;
         }
-        if (null != pressed) {
-            stateListDrawable.addState(STATES[1], pressed);
+        if (press.tracking) {
+            press.tracking = false;
+            press.lastFrames = press.frames;
         }
-        if (null != disabled) {
-            stateListDrawable.addState(STATES[2], disabled);
+    }
+
+    /**
+     * 松开后仍在进行的动画中最长的时长
+     *
+     * @return
+     */
+    private int getPressAnimationDuring() {
+        int during = mSpec.fadeDuring;
+        if (mSpec.z) {
+            during = Math.max(during, mSpec.zDuring);
         }
-        if (null != enable) {
-            stateListDrawable.addState(STATES[3], enable);
+        if (canRipple(mSpec)) {
+            during = Math.max(during, RIPPLE_EXIT_DURING);
         }
-        DrawableContainer.DrawableContainerState state = ((DrawableContainer.DrawableContainerState) stateListDrawable.getConstantState());
-        if (null == state || 0 == state.getChildCount()) {
-            //no CompatTextView config
-            return null;
+        return during;
+    }
+
+    /**
+     * 调试用 , 最近一次按下到动画结束期间重新绘制的帧数 , 正在按下时返回当前的计数
+     *
+     * @return
+     */
+    public int getPressFrameCount() {
+        if (null == mPress) {
+            return 0;
         }
-        stateListDrawable.setEnterFadeDuration(mFadeDuring);
-        stateListDrawable.setExitFadeDuration(mFadeDuring);
+        return mPress.tracking ? mPress.frames : mPress.lastFrames;
+    }
 
-        return stateListDrawable;
+    /**
+     * 显示圆点角标
+     */
+    public void showBadgeDot() {
+        setBadge(BADGE_DOT, null);
     }
 
     /**
-     * 生成每种模式下的Drawable
+     * 显示数字角标 , 超出ctv_badgeMaxCount时显示为maxCount+
+     *
+     * @param count 小于等于0时隐藏角标
+     */
+    public void setBadgeCount(int count) {
+        if (count <= 0) {
+            clearBadge();
+            return;
+        }
+        setBadge(BADGE_TEXT, count > mSpec.badgeMaxCount
+                ? mSpec.badgeMaxCount + "+" : String.valueOf(count));
+    }
+
+    /**
+     * 显示短文本角标 , 如"NEW"
+     *
+     * @param text 为空时隐藏角标
+     */
+    public void setBadgeText(@Nullable CharSequence text) {
+        if (TextUtils.isEmpty(text)) {
+            clearBadge();
+            return;
+        }
+        setBadge(BADGE_TEXT, text);
+    }
+
+    public void clearBadge() {
+        setBadge(BADGE_NONE, null);
+    }
+
+    public boolean hasBadge() {
+        return null != mBadge && BADGE_NONE != mBadge.mode;
+    }
+
+    private void setBadge(int mode, CharSequence text) {
+        if (null == mBadge) {
+            if (BADGE_NONE == mode) {
+                return;
+            }
+            mBadge = new Badge();
+        }
+        final Badge badge = mBadge;
+        if (mode == badge.mode && TextUtils.equals(text, badge.text)) {
+            return;
+        }
+        badge.mode = mode;
+        badge.text = text;
+        badge.textWidth = NULL;
+        invalidate();
+    }
+
+    /**
+     * 与{@link CompatShapeDrawable}的匹配顺序一致 : selected , pressed , disabled , default ,
+     * 未配置的状态使用默认状态的颜色
      *
-     * @param index
      * @return
      */
-    private GradientDrawable generatePartDrawable(int index) {
-        GradientDrawable drawable = null;
-        float[] f = new float[]{mCornerRadius[0], mCornerRadius[0],
-                mCornerRadius[1], mCornerRadius[1],
-                mCornerRadius[2], mCornerRadius[2],
-                mCornerRadius[3], mCornerRadius[3]};
-        if (NULL != mGradientStartColor[index] || NULL != mGradientCenterColor[index] || NULL != mGradientEndColor[index]) {
-            //Gradient
-            int[] colors = null;
-            if (NULL == mGradientCenterColor[index]) {
-                colors = new int[]{NULL == mGradientStartColor[index] ? Color.TRANSPARENT : mGradientStartColor[index],
-                        NULL == mGradientEndColor[index] ? Color.TRANSPARENT : mGradientEndColor[index]};
+    private int resolveBadgeColor() {
+        if (isSelected() && NULL != mSpec.badgeColor(2)) {
+            return mSpec.badgeColor(2);
+        }
+        if (isPressed() && NULL != mSpec.badgeColor(1)) {
+            return mSpec.badgeColor(1);
+        }
+        if (!isEnabled() && NULL != mSpec.badgeColor(3)) {
+            return mSpec.badgeColor(3);
+        }
+        return mSpec.badgeColor(0);
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        invalidateSnapshot();
+        //父类构造函数中也会调用 , 此时没有角标
+        if (hasBadge() && resolveBadgeColor() != mBadge.drawnColor) {
+            invalidate();
+        }
+    }
+
+    /**
+     * 开启ctv_snapshot、不可点击且软件绘制时 , 背景、文本、Drawable和角标一起渲染到位图 ,
+     * 之后直到invalidate(文本、状态、配置、Drawable变化均会触发)之前只绘制位图 ;
+     * 硬件加速时RenderNode已经缓存了绘制命令 , 位图只会多占内存和上传纹理 , 不使用快照
+     *
+     * @param canvas
+     */
+    @Override
+    public void draw(Canvas canvas) {
+        if (null == mSpec || !mSpec.snapshot || isInteractive() || getWidth() <= 0 || getHeight() <= 0) {
+            super.draw(canvas);
+            return;
+        }
+        if (canvas.isHardwareAccelerated()) {
+            releaseSnapshot();
+            super.draw(canvas);
+            return;
+        }
+        if (null == mSnapshot) {
+            mSnapshot = new Snapshot();
+        }
+        final Snapshot snapshot = mSnapshot;
+        if (!snapshot.valid || null == snapshot.bitmap) {
+            if (null == snapshot.bitmap) {
+                snapshot.bitmap = SnapshotCache.obtain(getWidth(), getHeight());
+                if (null == snapshot.bitmap) {
+                    super.draw(canvas);
+                    return;
+                }
             } else {
-                colors = new int[]{NULL == mGradientStartColor[index] ? Color.TRANSPARENT : mGradientStartColor[index],
-                        NULL == mGradientCenterColor[index] ? Color.TRANSPARENT : mGradientCenterColor[index],
-                        NULL == mGradientEndColor[index] ? Color.TRANSPARENT : mGradientEndColor[index]};
+                //尺寸变化时已经释放 , 这里的位图尺寸一定相同
+                reportCache(Metrics.CACHE_SNAPSHOT, true);
+                snapshot.bitmap.eraseColor(Color.TRANSPARENT);
             }
-            drawable = new GradientDrawable(processOrientation(mGradientDirection[index]), colors);
-            drawable.setCornerRadii(f);
-            drawable.setStroke(mStrokeWidth, mStrokeColor[index]);
-        } else if (NULL != mSolidColor[index]) {
-            //Solid
-            drawable = new GradientDrawable();
-            drawable.setColor(mSolidColor[index]);
-            drawable.setCornerRadii(f);
-            drawable.setStroke(mStrokeWidth, mStrokeColor[index]);
+            snapshot.canvas.setBitmap(snapshot.bitmap);
+            //绘制过程中再次invalidate时 , 下一帧重新渲染
+            snapshot.valid = true;
+            final int save = snapshot.canvas.save();
+            snapshot.canvas.translate(-getScrollX(), -getScrollY());
+            super.draw(snapshot.canvas);
+            snapshot.canvas.restoreToCount(save);
+            //只由Snapshot#bitmap持有 , 释放后可以被复用
+            snapshot.canvas.setBitmap(null);
+        }
+        canvas.drawBitmap(snapshot.bitmap, getScrollX(), getScrollY(), null);
+    }
+
+    @Override
+    public void invalidate() {
+        invalidateSnapshot();
+        super.invalidate();
+    }
+
+    @Override
+    public void invalidate(Rect dirty) {
+        invalidateSnapshot();
+        super.invalidate(dirty);
+    }
+
+    @Override
+    public void invalidate(int l, int t, int r, int b) {
+        invalidateSnapshot();
+        super.invalidate(l, t, r, b);
+    }
+
+    @Override
+    public void invalidateDrawable(@NonNull Drawable drawable) {
+        //背景渐变、compound drawable动画
+        invalidateSnapshot();
+        super.invalidateDrawable(drawable);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        releaseSnapshot();
+    }
+
+    private void releaseSnapshot() {
+        if (null != mSnapshot && null != mSnapshot.bitmap) {
+            SnapshotCache.release(mSnapshot.bitmap);
+            mSnapshot.bitmap = null;
+        }
+        invalidateSnapshot();
+    }
+
+    /**
+     * 父类构造函数中也会调用 , 此时还没有快照
+     */
+    private void invalidateSnapshot() {
+        if (null != mSnapshot) {
+            mSnapshot.valid = false;
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (hasBadge()) {
+            drawBadge(canvas);
+        }
+        if (null != mPress && mPress.tracking) {
+            mPress.frames++;
+        }
+    }
+
+    /**
+     * 圆点为圆形 , 文本为两端半圆的胶囊 , 单个字符时为圆形
+     *
+     * @param canvas
+     */
+    private void drawBadge(Canvas canvas) {
+        final CompatTextViewSpec spec = mSpec;
+        final Badge badge = mBadge;
+        final RectF rect = badge.rect;
+        final TextPaint textPaint = badge.textPaint;
+        final float height;
+        final float width;
+        if (BADGE_DOT == badge.mode) {
+            height = 2 * resolveBadgeSize(spec.badgeDotRadius, TypedValue.COMPLEX_UNIT_DIP, DEFAULT_BADGE_DOT_RADIUS);
+            width = height;
+        } else {
+            if (NULL == badge.textWidth) {
+                textPaint.setTextSize(resolveBadgeSize(spec.badgeTextSize, TypedValue.COMPLEX_UNIT_SP, DEFAULT_BADGE_TEXT_SIZE));
+                badge.textWidth = textPaint.measureText(badge.text, 0, badge.text.length());
+            }
+            height = textPaint.getTextSize() * 1.5F;
+            width = Math.max(height, badge.textWidth + height * 0.5F);
+        }
+        locateBadge(rect, width, height, spec);
+
+        badge.drawnColor = resolveBadgeColor();
+        badge.paint.setColor(badge.drawnColor);
+        canvas.drawRoundRect(rect, height * 0.5F, height * 0.5F, badge.paint);
+        if (BADGE_TEXT == badge.mode) {
+            textPaint.setColor(spec.badgeTextColor());
+            final float baseline = rect.centerY() - (textPaint.ascent() + textPaint.descent()) * 0.5F;
+            canvas.drawText(badge.text, 0, badge.text.length(), rect.centerX(), baseline, textPaint);
+        }
+    }
+
+    /**
+     * 锚定Drawable时以其右上角为中心 , 位置与TextView绘制compound drawable时一致 ;
+     * 锚定四个角时位于View内侧
+     *
+     * @param rect
+     * @param width
+     * @param height
+     * @param spec
+     */
+    private void locateBadge(RectF rect, float width, float height, CompatTextViewSpec spec) {
+        int anchor = spec.badgeAnchor;
+        Drawable drawable = null;
+        if (anchor < CompatTextViewSpec.ANCHOR_TOP_LEFT) {
+            drawable = compoundDrawable(anchor);
+            if (null == drawable) {
+                anchor = CompatTextViewSpec.ANCHOR_TOP_RIGHT;
+            }
+        }
+        float x;
+        float y;
+        if (null != drawable) {
+            final Rect bounds = drawable.getBounds();
+            final int vspace = getHeight() - getCompoundPaddingTop() - getCompoundPaddingBottom();
+            final int hspace = getWidth() - getCompoundPaddingLeft() - getCompoundPaddingRight();
+            switch (anchor) {
+                case CompatTextViewSpec.LEFT:
+                    x = getPaddingLeft();
+                    y = getCompoundPaddingTop() + (vspace - bounds.height()) / 2;
+                    break;
+                case CompatTextViewSpec.RIGHT:
+                    x = getWidth() - getPaddingRight() - bounds.width();
+                    y = getCompoundPaddingTop() + (vspace - bounds.height()) / 2;
+                    break;
+                case CompatTextViewSpec.TOP:
+                    x = getCompoundPaddingLeft() + (hspace - bounds.width()) / 2;
+                    y = getPaddingTop();
+                    break;
+                default:
+                    x = getCompoundPaddingLeft() + (hspace - bounds.width()) / 2;
+                    y = getHeight() - getPaddingBottom() - bounds.height();
+                    break;
+            }
+            x += bounds.right - width * 0.5F;
+            y += bounds.top - height * 0.5F;
+        } else {
+            x = CompatTextViewSpec.ANCHOR_TOP_LEFT == anchor || CompatTextViewSpec.ANCHOR_BOTTOM_LEFT == anchor
+                    ? 0 : getWidth() - width;
+            y = CompatTextViewSpec.ANCHOR_TOP_LEFT == anchor || CompatTextViewSpec.ANCHOR_TOP_RIGHT == anchor
+                    ? 0 : getHeight() - height;
+        }
+        x += getScrollX() + spec.badgeOffsetX;
+        y += getScrollY() + spec.badgeOffsetY;
+        rect.set(x, y, x + width, y + height);
+    }
+
+    private float resolveBadgeSize(int size, int unit, int defaultValue) {
+        return NULL == size
+                ? TypedValue.applyDimension(unit, defaultValue, getResources().getDisplayMetrics())
+                : size;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (null != mPress) {
+            removeCallbacks(mPress);
+        }
+        //不在屏幕上时停止统计 , 不保留快照
+        settlePress();
+        releaseSnapshot();
+        if (Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP
+                && null != mSpec
+                && mSpec.z
+                && null != getStateListAnimator()) {
+            //RecyclerView回收时停止进行中的升降动画 , 直接回到当前状态
+            getStateListAnimator().jumpToCurrentState();
         }
-        return drawable;
     }
 
     @Override
     public void setEnabled(boolean enabled) {
         super.setEnabled(enabled);
         if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP
-                && mRipple
-                && (!isSelected())) {
+                && null != mSpec
+                && mSpec.ripple) {
+            final Metrics metrics = sMetrics;
+            final long start = null == metrics ? 0 : System.nanoTime();
             //涟漪模式下的适配
-            Drawable drawable = processBackgroundDrawable();
-            if (null != drawable) {
-                setBackgroundDrawable(drawable);
+            refreshBackgroundDrawable();
+            if (null != metrics) {
+                metrics.onStateChanged(this, System.nanoTime() - start);
             }
         }
     }
@@ -522,34 +1476,111 @@ public class CompatTextView extends AppCompatTextView {
     public void setSelected(boolean selected) {
         super.setSelected(selected);
         if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP
-                && mRipple) {
+                && null != mSpec
+                && mSpec.ripple) {
+            final Metrics metrics = sMetrics;
+            final long start = null == metrics ? 0 : System.nanoTime();
             //涟漪模式下的适配
-            Drawable drawable = processBackgroundDrawable();
-            if (null != drawable) {
-                setBackgroundDrawable(drawable);
+            refreshBackgroundDrawable();
+            if (null != metrics) {
+                metrics.onStateChanged(this, System.nanoTime() - start);
             }
         }
     }
 
     /**
-     * process orientation
-     *
-     * @param direction
-     * @return
+     * 按下到动画结束期间绘制的帧数 , 松开后动画结束时执行
      */
-    private static GradientDrawable.Orientation processOrientation(int direction) {
-        switch (direction) {
-            case 0:
-                return GradientDrawable.Orientation.TOP_BOTTOM;
-            case 1:
-                return GradientDrawable.Orientation.LEFT_RIGHT;
-            case 2:
-                return GradientDrawable.Orientation.TL_BR;
-            case 3:
-                return GradientDrawable.Orientation.BL_TR;
-            default:
-                return GradientDrawable.Orientation.TOP_BOTTOM;
+    private final class PressTracker implements Runnable {
+        boolean tracking;
+        int frames;
+        int lastFrames;
+
+        @Override
+        public void run() {
+            settlePress();
         }
     }
 
+    /**
+     * 角标的内容由代码设置 , 样式来自{@link CompatTextViewSpec} ,
+     * Paint和RectF在第一次显示角标时创建 , 清除后保留复用 , 文字宽度在内容或字号变化后才重新测量
+     */
+    private static final class Badge {
+        final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        final RectF rect = new RectF();
+        int mode;
+        CharSequence text;
+        float textWidth;
+        int drawnColor;
+
+        Badge() {
+            textPaint.setTextAlign(Paint.Align.CENTER);
+        }
+    }
+
+    /**
+     * ctv_snapshot的位图 , 由{@link SnapshotCache}分配并统计内存 , 内容失效后尺寸不变时重新渲染到同一个位图
+     */
+    private static final class Snapshot {
+        final Canvas canvas = new Canvas();
+        Bitmap bitmap;
+        boolean valid;
+    }
+
+    /**
+     * 性能统计 , 按需重写 , 耗时单位为纳秒 ,
+     * 缓存和Drawable创建的回调可能来自后台线程({@link #bindAsync(CompatTextViewSpec, Executor)} , {@link #prefetch})
+     */
+    public abstract static class Metrics {
+        public static final int CACHE_SPEC = 0;
+        public static final int CACHE_BACKGROUND = 1;
+        public static final int CACHE_DRAWABLE = 2;
+        public static final int CACHE_SHADER = 3;
+        public static final int CACHE_ATLAS = 4;
+        public static final int CACHE_SNAPSHOT = 5;
+
+        public static final int DRAWABLE_BACKGROUND = 0;
+        public static final int DRAWABLE_COMPOUND = 1;
+        public static final int DRAWABLE_SHADER = 2;
+
+        /**
+         * 构造函数中解析属性、构建背景和Drawable的总耗时
+         */
+        public void onInit(@NonNull CompatTextView view, long nanos) {
+        }
+
+        /**
+         * @param rebuilt 是否重新获取了背景 , 否则复用View已有的背景
+         */
+        public void onProcessBackground(@NonNull CompatTextView view, long nanos, boolean rebuilt) {
+        }
+
+        /**
+         * Drawable对齐 , 尺寸未变化而跳过时不回调
+         */
+        public void onOffsetDrawable(@NonNull CompatTextView view, long nanos) {
+        }
+
+        /**
+         * setSelected、setEnabled时切换背景的耗时
+         */
+        public void onStateChanged(@NonNull CompatTextView view, long nanos) {
+        }
+
+        /**
+         * @param type {@link #DRAWABLE_BACKGROUND} , {@link #DRAWABLE_COMPOUND} , {@link #DRAWABLE_SHADER}
+         */
+        public void onDrawableCreated(int type) {
+        }
+
+        /**
+         * @param cache {@link #CACHE_SPEC} , {@link #CACHE_BACKGROUND} , {@link #CACHE_DRAWABLE} ,
+         *              {@link #CACHE_SHADER} , {@link #CACHE_ATLAS} , {@link #CACHE_SNAPSHOT}
+         * @param hit
+         */
+        public void onCacheResult(int cache, boolean hit) {
+        }
+    }
 }
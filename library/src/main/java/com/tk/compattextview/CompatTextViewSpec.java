@@ -0,0 +1,1052 @@
+package com.tk.compattextview;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.support.annotation.ColorRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.StyleableRes;
+import android.support.v4.content.ContextCompat;
+import android.support.v4.util.LruCache;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+import static com.tk.compattextview.CompatTextView.DEFAULT_Z_DURING;
+import static com.tk.compattextview.CompatTextView.DEFAULT_Z_MAX_LIFT;
+import static com.tk.compattextview.CompatTextView.NULL;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : CompatTextView解析后的属性 , 不可变 , 同一style的CompatTextView共享同一份实例
+ * </pre>
+ */
+public final class CompatTextViewSpec {
+    /**
+     * 未配置的颜色
+     */
+    public static final int NONE = NULL;
+    /**
+     * states
+     */
+    public static final int STATE_DEFAULT = 0;
+    public static final int STATE_PRESSED = 1;
+    public static final int STATE_SELECTED = 2;
+    public static final int STATE_DISABLED = 3;
+    /**
+     * sides
+     */
+    public static final int LEFT = 0;
+    public static final int TOP = 1;
+    public static final int RIGHT = 2;
+    public static final int BOTTOM = 3;
+    /**
+     * gradient directions
+     */
+    public static final int TOP_TO_BOTTOM = 0;
+    public static final int LEFT_TO_RIGHT = 1;
+    public static final int TOP_LEFT_TO_BOTTOM_RIGHT = 2;
+    public static final int BOTTOM_LEFT_TO_TOP_RIGHT = 3;
+    /**
+     * drawable aligns , left/top , center , right/bottom ,
+     * 左右两侧的Drawable为首行 , View中心(与TextView默认一致) , 末行
+     */
+    public static final int ALIGN_START = 0;
+    public static final int ALIGN_CENTER = 1;
+    public static final int ALIGN_END = 2;
+    /**
+     * badge anchors , {@link #LEFT}、{@link #TOP}、{@link #RIGHT}、{@link #BOTTOM}为该侧Drawable的右上角 ,
+     * 以下为View内侧的四个角
+     */
+    public static final int ANCHOR_TOP_LEFT = 4;
+    public static final int ANCHOR_TOP_RIGHT = 5;
+    public static final int ANCHOR_BOTTOM_RIGHT = 6;
+    public static final int ANCHOR_BOTTOM_LEFT = 7;
+    public static final int DEFAULT_BADGE_MAX_COUNT = 99;
+
+    private static final int STYLE_CACHE_SIZE = 32;
+    private static final int INTERN_CACHE_SIZE = 128;
+    /**
+     * theme -> style key -> spec
+     */
+    private static final WeakHashMap<Resources.Theme, LruCache<StyleKey, CompatTextViewSpec>> STYLE_CACHE = new WeakHashMap<>();
+    private static final LruCache<CompatTextViewSpec, CompatTextViewSpec> INTERN_CACHE = new LruCache<>(INTERN_CACHE_SIZE);
+    /**
+     * theme -> compatTextViewStyle , 0表示主题中未配置
+     */
+    private static final WeakHashMap<Resources.Theme, Integer> DEFAULT_STYLE = new WeakHashMap<>();
+    /**
+     * theme -> 是否直接设置了ctv_*属性
+     */
+    private static final WeakHashMap<Resources.Theme, Boolean> THEME_ATTRIBUTES = new WeakHashMap<>();
+    /**
+     * {@link #values}中每组4个值的起始位置 , 背景相关的在前 , 作为{@link BackgroundCache}的key时整段复制 ,
+     * 状态顺序为default , pressed , selected , disabled , 方向顺序为left , top , right , bottom
+     */
+    static final int STROKE_COLOR = 0;
+    static final int SOLID_COLOR = 4;
+    static final int GRADIENT_START_COLOR = 8;
+    static final int GRADIENT_CENTER_COLOR = 12;
+    static final int GRADIENT_END_COLOR = 16;
+    static final int GRADIENT_DIRECTION = 20;
+    static final int BACKGROUND_END = 24;
+    static final int TEXT_COLOR = 24;
+    static final int TINT = 28;
+    static final int TINT_DRAWABLE = 32;
+    static final int TINT_DRAWABLE_WIDTH = 36;
+    static final int TINT_DRAWABLE_HEIGHT = 40;
+    static final int DRAWABLE_ALIGN = 44;
+    static final int BADGE_COLOR = 48;
+    /**
+     * 角标文字颜色只有一个值 , 放在{@link #values}中以便和其他颜色一样记录引用的资源
+     */
+    static final int BADGE_TEXT_COLOR = 52;
+    static final int VALUES_SIZE = 53;
+    /**
+     * 颜色属性的styleable index , 及其在{@link #values}中的位置
+     */
+    private static final int[] COLOR_ATTRS = {
+            R.styleable.CompatTextView_ctv_strokeColor, STROKE_COLOR,
+            R.styleable.CompatTextView_ctv_strokePressedColor, STROKE_COLOR + 1,
+            R.styleable.CompatTextView_ctv_strokeSelectedColor, STROKE_COLOR + 2,
+            R.styleable.CompatTextView_ctv_strokeDisabledColor, STROKE_COLOR + 3,
+            R.styleable.CompatTextView_ctv_solidColor, SOLID_COLOR,
+            R.styleable.CompatTextView_ctv_solidPressedColor, SOLID_COLOR + 1,
+            R.styleable.CompatTextView_ctv_solidSelectedColor, SOLID_COLOR + 2,
+            R.styleable.CompatTextView_ctv_solidDisabledColor, SOLID_COLOR + 3,
+            R.styleable.CompatTextView_ctv_gradientStartColor, GRADIENT_START_COLOR,
+            R.styleable.CompatTextView_ctv_gradientStartPressedColor, GRADIENT_START_COLOR + 1,
+            R.styleable.CompatTextView_ctv_gradientStartSelectedColor, GRADIENT_START_COLOR + 2,
+            R.styleable.CompatTextView_ctv_gradientStartDisabledColor, GRADIENT_START_COLOR + 3,
+            R.styleable.CompatTextView_ctv_gradientCenterColor, GRADIENT_CENTER_COLOR,
+            R.styleable.CompatTextView_ctv_gradientCenterPressedColor, GRADIENT_CENTER_COLOR + 1,
+            R.styleable.CompatTextView_ctv_gradientCenterSelectedColor, GRADIENT_CENTER_COLOR + 2,
+            R.styleable.CompatTextView_ctv_gradientCenterDisabledColor, GRADIENT_CENTER_COLOR + 3,
+            R.styleable.CompatTextView_ctv_gradientEndColor, GRADIENT_END_COLOR,
+            R.styleable.CompatTextView_ctv_gradientEndPressedColor, GRADIENT_END_COLOR + 1,
+            R.styleable.CompatTextView_ctv_gradientEndSelectedColor, GRADIENT_END_COLOR + 2,
+            R.styleable.CompatTextView_ctv_gradientEndDisabledColor, GRADIENT_END_COLOR + 3,
+            R.styleable.CompatTextView_ctv_textColor, TEXT_COLOR,
+            R.styleable.CompatTextView_ctv_textPressedColor, TEXT_COLOR + 1,
+            R.styleable.CompatTextView_ctv_textSelectedColor, TEXT_COLOR + 2,
+            R.styleable.CompatTextView_ctv_textDisabledColor, TEXT_COLOR + 3,
+            R.styleable.CompatTextView_ctv_tintLeft, TINT,
+            R.styleable.CompatTextView_ctv_tintTop, TINT + 1,
+            R.styleable.CompatTextView_ctv_tintRight, TINT + 2,
+            R.styleable.CompatTextView_ctv_tintBottom, TINT + 3,
+            R.styleable.CompatTextView_ctv_badgeColor, BADGE_COLOR,
+            R.styleable.CompatTextView_ctv_badgePressedColor, BADGE_COLOR + 1,
+            R.styleable.CompatTextView_ctv_badgeSelectedColor, BADGE_COLOR + 2,
+            R.styleable.CompatTextView_ctv_badgeDisabledColor, BADGE_COLOR + 3,
+            R.styleable.CompatTextView_ctv_badgeTextColor, BADGE_TEXT_COLOR};
+    /**
+     * topLeft , topRight , bottomRight , bottomLeft
+     */
+    final float[] cornerRadius;
+    final int strokeWidth;
+    /**
+     * 全部按状态、方向配置的int属性 , 一个数组代替13个 , 只读
+     */
+    final int[] values;
+    /**
+     * 与{@link #values}对应 , 引用了颜色资源(@color/xxx)时为资源id , 否则为0 ,
+     * uiMode等配置变化时只需重新解析这些颜色
+     */
+    final int[] colorResources;
+    /**
+     * 是否将Drawable预先渲染为位图
+     */
+    final boolean rasterize;
+    final int fadeDuring;
+    final boolean ripple;
+    final boolean z;
+    final int zDuring;
+    final int zMaxLift;
+    /**
+     * 不可点击时将整个View渲染为位图 , 内容不变时直接绘制位图
+     */
+    final boolean snapshot;
+    /**
+     * 角标样式 , 文字大小和圆点半径为{@link #NONE}时由CompatTextView使用默认值
+     */
+    final int badgeTextSize;
+    final int badgeDotRadius;
+    final int badgeMaxCount;
+    final int badgeAnchor;
+    final int badgeOffsetX;
+    final int badgeOffsetY;
+
+    private final int hashCode;
+
+    private CompatTextViewSpec(TypedArray array) {
+        cornerRadius = new float[4];
+        float r = array.getDimension(R.styleable.CompatTextView_ctv_radius, 0);
+        if (r > 0) {
+            Arrays.fill(cornerRadius, r);
+        } else {
+            cornerRadius[0] = array.getDimension(R.styleable.CompatTextView_ctv_topLeftRadius, 0);
+            cornerRadius[1] = array.getDimension(R.styleable.CompatTextView_ctv_topRightRadius, 0);
+            cornerRadius[2] = array.getDimension(R.styleable.CompatTextView_ctv_bottomRightRadius, 0);
+            cornerRadius[3] = array.getDimension(R.styleable.CompatTextView_ctv_bottomLeftRadius, 0);
+        }
+
+        strokeWidth = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_strokeWidth, 0);
+        values = new int[VALUES_SIZE];
+        values[STROKE_COLOR] = array.getColor(R.styleable.CompatTextView_ctv_strokeColor, Color.GRAY);
+        values[STROKE_COLOR + 1] = array.getColor(R.styleable.CompatTextView_ctv_strokePressedColor, values[STROKE_COLOR]);
+        values[STROKE_COLOR + 2] = array.getColor(R.styleable.CompatTextView_ctv_strokeSelectedColor, values[STROKE_COLOR]);
+        values[STROKE_COLOR + 3] = array.getColor(R.styleable.CompatTextView_ctv_strokeDisabledColor, values[STROKE_COLOR]);
+
+        values[SOLID_COLOR] = array.getColor(R.styleable.CompatTextView_ctv_solidColor, NULL);
+        values[SOLID_COLOR + 1] = array.getColor(R.styleable.CompatTextView_ctv_solidPressedColor, NULL);
+        values[SOLID_COLOR + 2] = array.getColor(R.styleable.CompatTextView_ctv_solidSelectedColor, NULL);
+        values[SOLID_COLOR + 3] = array.getColor(R.styleable.CompatTextView_ctv_solidDisabledColor, NULL);
+
+        //未配置时由CompatTextView使用原本的文本颜色
+        values[TEXT_COLOR] = array.getColor(R.styleable.CompatTextView_ctv_textColor, NULL);
+        values[TEXT_COLOR + 1] = array.getColor(R.styleable.CompatTextView_ctv_textPressedColor, NULL);
+        values[TEXT_COLOR + 2] = array.getColor(R.styleable.CompatTextView_ctv_textSelectedColor, NULL);
+        values[TEXT_COLOR + 3] = array.getColor(R.styleable.CompatTextView_ctv_textDisabledColor, NULL);
+
+        values[TINT] = array.getColor(R.styleable.CompatTextView_ctv_tintLeft, NULL);
+        values[TINT + 1] = array.getColor(R.styleable.CompatTextView_ctv_tintTop, NULL);
+        values[TINT + 2] = array.getColor(R.styleable.CompatTextView_ctv_tintRight, NULL);
+        values[TINT + 3] = array.getColor(R.styleable.CompatTextView_ctv_tintBottom, NULL);
+
+        //未配置宽高时使用Drawable的固有宽高
+        values[TINT_DRAWABLE] = array.getResourceId(R.styleable.CompatTextView_ctv_tintDrawableLeft, 0);
+        values[TINT_DRAWABLE_WIDTH] = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableLeftWidth, NULL);
+        values[TINT_DRAWABLE_HEIGHT] = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableLeftHeight, NULL);
+        values[TINT_DRAWABLE + 1] = array.getResourceId(R.styleable.CompatTextView_ctv_tintDrawableTop, 0);
+        values[TINT_DRAWABLE_WIDTH + 1] = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableTopWidth, NULL);
+        values[TINT_DRAWABLE_HEIGHT + 1] = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableTopHeight, NULL);
+        values[TINT_DRAWABLE + 2] = array.getResourceId(R.styleable.CompatTextView_ctv_tintDrawableRight, 0);
+        values[TINT_DRAWABLE_WIDTH + 2] = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableRightWidth, NULL);
+        values[TINT_DRAWABLE_HEIGHT + 2] = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableRightHeight, NULL);
+        values[TINT_DRAWABLE + 3] = array.getResourceId(R.styleable.CompatTextView_ctv_tintDrawableBottom, 0);
+        values[TINT_DRAWABLE_WIDTH + 3] = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableBottomWidth, NULL);
+        values[TINT_DRAWABLE_HEIGHT + 3] = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_tintDrawableBottomHeight, NULL);
+
+        rasterize = array.getBoolean(R.styleable.CompatTextView_ctv_rasterizeDrawables, false);
+
+        values[DRAWABLE_ALIGN] = array.getInt(R.styleable.CompatTextView_ctv_drawableLeftAlign, 1);
+        values[DRAWABLE_ALIGN + 1] = array.getInt(R.styleable.CompatTextView_ctv_drawableTopAlign, 1);
+        values[DRAWABLE_ALIGN + 2] = array.getInt(R.styleable.CompatTextView_ctv_drawableRightAlign, 1);
+        values[DRAWABLE_ALIGN + 3] = array.getInt(R.styleable.CompatTextView_ctv_drawableBottomAlign, 1);
+
+        values[GRADIENT_START_COLOR] = array.getColor(R.styleable.CompatTextView_ctv_gradientStartColor, NULL);
+        values[GRADIENT_START_COLOR + 1] = array.getColor(R.styleable.CompatTextView_ctv_gradientStartPressedColor, NULL);
+        values[GRADIENT_START_COLOR + 2] = array.getColor(R.styleable.CompatTextView_ctv_gradientStartSelectedColor, NULL);
+        values[GRADIENT_START_COLOR + 3] = array.getColor(R.styleable.CompatTextView_ctv_gradientStartDisabledColor, NULL);
+
+        values[GRADIENT_CENTER_COLOR] = array.getColor(R.styleable.CompatTextView_ctv_gradientCenterColor, NULL);
+        values[GRADIENT_CENTER_COLOR + 1] = array.getColor(R.styleable.CompatTextView_ctv_gradientCenterPressedColor, NULL);
+        values[GRADIENT_CENTER_COLOR + 2] = array.getColor(R.styleable.CompatTextView_ctv_gradientCenterSelectedColor, NULL);
+        values[GRADIENT_CENTER_COLOR + 3] = array.getColor(R.styleable.CompatTextView_ctv_gradientCenterDisabledColor, NULL);
+
+        values[GRADIENT_END_COLOR] = array.getColor(R.styleable.CompatTextView_ctv_gradientEndColor, NULL);
+        values[GRADIENT_END_COLOR + 1] = array.getColor(R.styleable.CompatTextView_ctv_gradientEndPressedColor, NULL);
+        values[GRADIENT_END_COLOR + 2] = array.getColor(R.styleable.CompatTextView_ctv_gradientEndSelectedColor, NULL);
+        values[GRADIENT_END_COLOR + 3] = array.getColor(R.styleable.CompatTextView_ctv_gradientEndDisabledColor, NULL);
+
+        values[GRADIENT_DIRECTION] = array.getInt(R.styleable.CompatTextView_ctv_gradientDirection, 0);
+        values[GRADIENT_DIRECTION + 1] = array.getInt(R.styleable.CompatTextView_ctv_gradientDirectionPressed, 0);
+        values[GRADIENT_DIRECTION + 2] = array.getInt(R.styleable.CompatTextView_ctv_gradientDirectionSelected, 0);
+        values[GRADIENT_DIRECTION + 3] = array.getInt(R.styleable.CompatTextView_ctv_gradientDirectionDisabled, 0);
+
+        colorResources = new int[VALUES_SIZE];
+        for (int i = 0; i < COLOR_ATTRS.length; i += 2) {
+            //直接写入的颜色值没有资源id
+            colorResources[COLOR_ATTRS[i + 1]] = array.getResourceId(COLOR_ATTRS[i], 0);
+        }
+
+        fadeDuring = array.getInt(R.styleable.CompatTextView_ctv_fadeDuring, 0);
+        ripple = array.getBoolean(R.styleable.CompatTextView_ctv_ripple, true);
+        z = array.getBoolean(R.styleable.CompatTextView_ctv_z, false);
+        zDuring = array.getInt(R.styleable.CompatTextView_ctv_z_during, DEFAULT_Z_DURING);
+        zMaxLift = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_z_max_lift, DEFAULT_Z_MAX_LIFT);
+        snapshot = array.getBoolean(R.styleable.CompatTextView_ctv_snapshot, false);
+
+        values[BADGE_COLOR] = array.getColor(R.styleable.CompatTextView_ctv_badgeColor, Color.RED);
+        values[BADGE_COLOR + 1] = array.getColor(R.styleable.CompatTextView_ctv_badgePressedColor, NULL);
+        values[BADGE_COLOR + 2] = array.getColor(R.styleable.CompatTextView_ctv_badgeSelectedColor, NULL);
+        values[BADGE_COLOR + 3] = array.getColor(R.styleable.CompatTextView_ctv_badgeDisabledColor, NULL);
+        for (int i = 1; i < 4; i++) {
+            //未配置的边框状态颜色与默认状态一致 , COLOR_ATTRS中前4个为边框颜色
+            if (!array.hasValue(COLOR_ATTRS[2 * i])) {
+                colorResources[STROKE_COLOR + i] = colorResources[STROKE_COLOR];
+            }
+        }
+        values[BADGE_TEXT_COLOR] = array.getColor(R.styleable.CompatTextView_ctv_badgeTextColor, Color.WHITE);
+        badgeTextSize = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_badgeTextSize, NULL);
+        badgeDotRadius = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_badgeDotRadius, NULL);
+        badgeMaxCount = array.getInt(R.styleable.CompatTextView_ctv_badgeMaxCount, DEFAULT_BADGE_MAX_COUNT);
+        badgeAnchor = array.getInt(R.styleable.CompatTextView_ctv_badgeAnchor, ANCHOR_TOP_RIGHT);
+        badgeOffsetX = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_badgeOffsetX, 0);
+        badgeOffsetY = array.getDimensionPixelOffset(R.styleable.CompatTextView_ctv_badgeOffsetY, 0);
+
+        hashCode = computeHashCode();
+    }
+
+    private CompatTextViewSpec(Builder builder) {
+        cornerRadius = builder.cornerRadius.clone();
+        strokeWidth = builder.strokeWidth;
+        values = builder.values.clone();
+        colorResources = builder.colorResources.clone();
+        rasterize = builder.rasterize;
+        fadeDuring = builder.fadeDuring;
+        ripple = builder.ripple;
+        z = builder.z;
+        zDuring = builder.zDuring;
+        zMaxLift = builder.zMaxLift;
+        snapshot = builder.snapshot;
+        badgeTextSize = builder.badgeTextSize;
+        badgeDotRadius = builder.badgeDotRadius;
+        badgeMaxCount = builder.badgeMaxCount;
+        badgeAnchor = builder.badgeAnchor;
+        badgeOffsetX = builder.badgeOffsetX;
+        badgeOffsetY = builder.badgeOffsetY;
+
+        hashCode = computeHashCode();
+    }
+
+    /**
+     * 以当前属性为基础修改
+     *
+     * @return
+     */
+    @NonNull
+    public Builder buildUpon() {
+        return new Builder(this, null);
+    }
+
+    /**
+     * 获取属性 , 没有内联ctv_*属性时按(theme , defStyleAttr , defStyleRes , style)缓存
+     *
+     * @param context
+     * @param attrs
+     * @param defStyleAttr
+     * @param defStyleRes
+     * @return
+     */
+    @NonNull
+    static CompatTextViewSpec obtain(@NonNull Context context, @Nullable AttributeSet attrs,
+                                     int defStyleAttr, int defStyleRes) {
+        Resources.Theme theme = context.getTheme();
+        boolean inline = hasInlineAttributes(attrs);
+        StyleKey key = null;
+        if (null != theme && !inline) {
+            Configuration configuration = context.getResources().getConfiguration();
+            key = new StyleKey(defStyleAttr, defStyleRes,
+                    null == attrs ? 0 : attrs.getStyleAttribute(),
+                    configuration.uiMode, configuration.densityDpi);
+            CompatTextViewSpec spec = getStyleCache(theme).get(key);
+            CompatTextView.reportCache(CompatTextView.Metrics.CACHE_SPEC, null != spec);
+            if (null != spec) {
+                return spec;
+            }
+        }
+        CompatTextViewSpec spec = null;
+        if (null != attrs && 0 == defStyleAttr && 0 == defStyleRes && !hasThemeAttributes(context)) {
+            spec = obtainGenerated(context, attrs, inline);
+        }
+        if (null == spec) {
+            TypedArray array = context.obtainStyledAttributes(attrs, R.styleable.CompatTextView, defStyleAttr, defStyleRes);
+            spec = intern(new CompatTextViewSpec(array));
+            array.recycle();
+        }
+        if (null != key) {
+            getStyleCache(theme).put(key, spec);
+        }
+        return spec;
+    }
+
+    /**
+     * 主题中的compatTextViewStyle , 每个主题只解析一次
+     *
+     * @param context
+     * @return 未配置时为0
+     */
+    static int resolveDefaultStyle(@NonNull Context context) {
+        Resources.Theme theme = context.getTheme();
+        if (null == theme) {
+            return 0;
+        }
+        synchronized (DEFAULT_STYLE) {
+            Integer style = DEFAULT_STYLE.get(theme);
+            if (null == style) {
+                TypedValue value = new TypedValue();
+                style = theme.resolveAttribute(R.attr.compatTextViewStyle, value, true) ? value.resourceId : 0;
+                DEFAULT_STYLE.put(theme, style);
+            }
+            return style;
+        }
+    }
+
+    /**
+     * 主题中是否直接设置了ctv_*属性 , 此时生成的Spec缺少这部分默认值 , 每个主题只检查一次
+     *
+     * @param context
+     * @return
+     */
+    private static boolean hasThemeAttributes(@NonNull Context context) {
+        Resources.Theme theme = context.getTheme();
+        if (null == theme) {
+            return false;
+        }
+        synchronized (THEME_ATTRIBUTES) {
+            Boolean has = THEME_ATTRIBUTES.get(theme);
+            if (null == has) {
+                TypedArray array = theme.obtainStyledAttributes(R.styleable.CompatTextView);
+                has = array.getIndexCount() > 0;
+                array.recycle();
+                THEME_ATTRIBUTES.put(theme, has);
+            }
+            return has;
+        }
+    }
+
+    /**
+     * 从{@link SpecRegistry}中查找编译期生成的Spec : 布局中内联ctv_*属性时按android:id查找 ,
+     * 只有style时按style查找 , 同时存在时无法确定属性来源 , 交给运行时解析
+     *
+     * @param context
+     * @param attrs
+     * @param inline
+     * @return
+     */
+    @Nullable
+    private static CompatTextViewSpec obtainGenerated(@NonNull Context context, @NonNull AttributeSet attrs, boolean inline) {
+        int style = attrs.getStyleAttribute();
+        if (inline) {
+            if (0 != style) {
+                return null;
+            }
+            int fingerprint = 0;
+            for (int i = 0, count = attrs.getAttributeCount(); i < count; i++) {
+                if (Arrays.binarySearch(R.styleable.CompatTextView, attrs.getAttributeNameResource(i)) >= 0) {
+                    fingerprint += SpecRegistry.fingerprint(attrs.getAttributeName(i), attrs.getAttributeValue(i));
+                }
+            }
+            return SpecRegistry.get(attrs.getIdAttributeResourceValue(0), fingerprint, context);
+        }
+        return SpecRegistry.get(style, 0, context);
+    }
+
+    /**
+     * 去重 , 相同的属性返回同一个实例
+     *
+     * @param spec
+     * @return
+     */
+    @NonNull
+    static CompatTextViewSpec intern(@NonNull CompatTextViewSpec spec) {
+        CompatTextViewSpec cached = INTERN_CACHE.get(spec);
+        if (null != cached) {
+            return cached;
+        }
+        //后台线程并发加载时可能得到相等的不同实例 , Spec按equals比较 , 不影响正确性
+        INTERN_CACHE.put(spec, spec);
+        return spec;
+    }
+
+    private static LruCache<StyleKey, CompatTextViewSpec> getStyleCache(Resources.Theme theme) {
+        synchronized (STYLE_CACHE) {
+            LruCache<StyleKey, CompatTextViewSpec> cache = STYLE_CACHE.get(theme);
+            if (null == cache) {
+                cache = new LruCache<>(STYLE_CACHE_SIZE);
+                STYLE_CACHE.put(theme, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * 布局中是否直接声明了ctv_*属性
+     *
+     * @param attrs
+     * @return
+     */
+    private static boolean hasInlineAttributes(@Nullable AttributeSet attrs) {
+        if (null == attrs) {
+            return false;
+        }
+        for (int i = 0, count = attrs.getAttributeCount(); i < count; i++) {
+            //aapt生成的styleable数组按attr id升序排列
+            if (Arrays.binarySearch(R.styleable.CompatTextView, attrs.getAttributeNameResource(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int computeHashCode() {
+        int result = Arrays.hashCode(cornerRadius);
+        result = 31 * result + strokeWidth;
+        result = 31 * result + Arrays.hashCode(values);
+        result = 31 * result + Arrays.hashCode(colorResources);
+        result = 31 * result + (rasterize ? 1 : 0);
+        result = 31 * result + fadeDuring;
+        result = 31 * result + (ripple ? 1 : 0);
+        result = 31 * result + (z ? 1 : 0);
+        result = 31 * result + zDuring;
+        result = 31 * result + zMaxLift;
+        result = 31 * result + (snapshot ? 1 : 0);
+        result = 31 * result + badgeTextSize;
+        result = 31 * result + badgeDotRadius;
+        result = 31 * result + badgeMaxCount;
+        result = 31 * result + badgeAnchor;
+        result = 31 * result + badgeOffsetX;
+        result = 31 * result + badgeOffsetY;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompatTextViewSpec)) {
+            return false;
+        }
+        CompatTextViewSpec spec = (CompatTextViewSpec) o;
+        return hashCode == spec.hashCode
+                && strokeWidth == spec.strokeWidth
+                && fadeDuring == spec.fadeDuring
+                && ripple == spec.ripple
+                && rasterize == spec.rasterize
+                && z == spec.z
+                && zDuring == spec.zDuring
+                && zMaxLift == spec.zMaxLift
+                && snapshot == spec.snapshot
+                && sameBadgeStyle(spec)
+                && Arrays.equals(cornerRadius, spec.cornerRadius)
+                && Arrays.equals(values, spec.values)
+                && Arrays.equals(colorResources, spec.colorResources);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    int strokeColor(int state) {
+        return values[STROKE_COLOR + state];
+    }
+
+    int solidColor(int state) {
+        return values[SOLID_COLOR + state];
+    }
+
+    int gradientStartColor(int state) {
+        return values[GRADIENT_START_COLOR + state];
+    }
+
+    int gradientCenterColor(int state) {
+        return values[GRADIENT_CENTER_COLOR + state];
+    }
+
+    int gradientEndColor(int state) {
+        return values[GRADIENT_END_COLOR + state];
+    }
+
+    int gradientDirection(int state) {
+        return values[GRADIENT_DIRECTION + state];
+    }
+
+    int textColor(int state) {
+        return values[TEXT_COLOR + state];
+    }
+
+    int tint(int side) {
+        return values[TINT + side];
+    }
+
+    int tintDrawable(int side) {
+        return values[TINT_DRAWABLE + side];
+    }
+
+    int tintDrawableWidth(int side) {
+        return values[TINT_DRAWABLE_WIDTH + side];
+    }
+
+    int tintDrawableHeight(int side) {
+        return values[TINT_DRAWABLE_HEIGHT + side];
+    }
+
+    int drawableAlign(int side) {
+        return values[DRAWABLE_ALIGN + side];
+    }
+
+    int badgeColor(int state) {
+        return values[BADGE_COLOR + state];
+    }
+
+    int badgeTextColor() {
+        return values[BADGE_TEXT_COLOR];
+    }
+
+    /**
+     * 某一组(如{@link #TEXT_COLOR})的4个值是否相同
+     *
+     * @param other
+     * @param offset
+     * @return
+     */
+    boolean sameGroup(@NonNull CompatTextViewSpec other, int offset) {
+        for (int i = offset; i < offset + 4; i++) {
+            if (values[i] != other.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 背景相关的配置是否相同
+     *
+     * @param other
+     * @return
+     */
+    boolean sameBackground(@NonNull CompatTextViewSpec other) {
+        if (ripple != other.ripple
+                || strokeWidth != other.strokeWidth
+                || fadeDuring != other.fadeDuring
+                || !Arrays.equals(cornerRadius, other.cornerRadius)) {
+            return false;
+        }
+        for (int i = 0; i < BACKGROUND_END; i++) {
+            if (values[i] != other.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按当前配置(如uiMode)重新解析引用了资源的颜色 , 其他属性不变
+     *
+     * @param context
+     * @return 颜色均未变化时返回自身
+     */
+    @NonNull
+    CompatTextViewSpec recolor(@NonNull Context context) {
+        int[] recolored = null;
+        for (int i = 0; i < VALUES_SIZE; i++) {
+            if (0 == colorResources[i]) {
+                continue;
+            }
+            int color = ContextCompat.getColor(context, colorResources[i]);
+            if (color != values[i]) {
+                if (null == recolored) {
+                    recolored = values.clone();
+                }
+                recolored[i] = color;
+            }
+        }
+        if (null == recolored) {
+            return this;
+        }
+        Builder builder = new Builder(this, null);
+        System.arraycopy(recolored, 0, builder.values, 0, VALUES_SIZE);
+        return builder.build();
+    }
+
+    /**
+     * 角标除颜色外的样式是否相同
+     *
+     * @param other
+     * @return
+     */
+    boolean sameBadgeStyle(@NonNull CompatTextViewSpec other) {
+        return badgeTextColor() == other.badgeTextColor()
+                && badgeTextSize == other.badgeTextSize
+                && badgeDotRadius == other.badgeDotRadius
+                && badgeMaxCount == other.badgeMaxCount
+                && badgeAnchor == other.badgeAnchor
+                && badgeOffsetX == other.badgeOffsetX
+                && badgeOffsetY == other.badgeOffsetY;
+    }
+
+    /**
+     * 代码中配置CompatTextView , 通过{@link #build()}生成Spec ,
+     * 或由{@link CompatTextView#edit()}获取后通过{@link #commit()}一次性应用
+     */
+    public static final class Builder {
+        private final CompatTextView target;
+        private final float[] cornerRadius;
+        private int strokeWidth;
+        private final int[] values;
+        private final int[] colorResources;
+        private boolean rasterize;
+        private int fadeDuring;
+        private boolean ripple;
+        private boolean z;
+        private int zDuring;
+        private int zMaxLift;
+        private boolean snapshot;
+        private int badgeTextSize;
+        private int badgeDotRadius;
+        private int badgeMaxCount;
+        private int badgeAnchor;
+        private int badgeOffsetX;
+        private int badgeOffsetY;
+
+        /**
+         * 默认值与未配置任何ctv_*属性时一致
+         */
+        public Builder() {
+            target = null;
+            cornerRadius = new float[4];
+            values = new int[VALUES_SIZE];
+            colorResources = new int[VALUES_SIZE];
+            //除以下几组外默认为未配置
+            Arrays.fill(values, NULL);
+            Arrays.fill(values, STROKE_COLOR, STROKE_COLOR + 4, Color.GRAY);
+            Arrays.fill(values, GRADIENT_DIRECTION, GRADIENT_DIRECTION + 4, TOP_TO_BOTTOM);
+            Arrays.fill(values, TINT_DRAWABLE, TINT_DRAWABLE + 4, 0);
+            Arrays.fill(values, DRAWABLE_ALIGN, DRAWABLE_ALIGN + 4, ALIGN_CENTER);
+            values[BADGE_COLOR] = Color.RED;
+            ripple = true;
+            zDuring = DEFAULT_Z_DURING;
+            zMaxLift = DEFAULT_Z_MAX_LIFT;
+            values[BADGE_TEXT_COLOR] = Color.WHITE;
+            badgeTextSize = NULL;
+            badgeDotRadius = NULL;
+            badgeMaxCount = DEFAULT_BADGE_MAX_COUNT;
+            badgeAnchor = ANCHOR_TOP_RIGHT;
+        }
+
+        Builder(@NonNull CompatTextViewSpec spec, @Nullable CompatTextView target) {
+            this.target = target;
+            cornerRadius = spec.cornerRadius.clone();
+            strokeWidth = spec.strokeWidth;
+            values = spec.values.clone();
+            colorResources = spec.colorResources.clone();
+            rasterize = spec.rasterize;
+            fadeDuring = spec.fadeDuring;
+            ripple = spec.ripple;
+            z = spec.z;
+            zDuring = spec.zDuring;
+            zMaxLift = spec.zMaxLift;
+            snapshot = spec.snapshot;
+            badgeTextSize = spec.badgeTextSize;
+            badgeDotRadius = spec.badgeDotRadius;
+            badgeMaxCount = spec.badgeMaxCount;
+            badgeAnchor = spec.badgeAnchor;
+            badgeOffsetX = spec.badgeOffsetX;
+            badgeOffsetY = spec.badgeOffsetY;
+        }
+
+        public Builder setRadius(float radius) {
+            Arrays.fill(cornerRadius, radius);
+            return this;
+        }
+
+        public Builder setRadius(float topLeft, float topRight, float bottomRight, float bottomLeft) {
+            cornerRadius[0] = topLeft;
+            cornerRadius[1] = topRight;
+            cornerRadius[2] = bottomRight;
+            cornerRadius[3] = bottomLeft;
+            return this;
+        }
+
+        public Builder setStrokeWidth(int strokeWidth) {
+            this.strokeWidth = strokeWidth;
+            return this;
+        }
+
+        /**
+         * 所有状态的边框颜色
+         *
+         * @param color
+         * @return
+         */
+        public Builder setStrokeColor(int color) {
+            Arrays.fill(values, STROKE_COLOR, STROKE_COLOR + 4, color);
+            Arrays.fill(colorResources, STROKE_COLOR, STROKE_COLOR + 4, 0);
+            return this;
+        }
+
+        public Builder setStrokeColor(int state, int color) {
+            setColor(STROKE_COLOR + state, color);
+            return this;
+        }
+
+        /**
+         * @param state
+         * @param color {@link #NONE}时该状态不显示背景
+         * @return
+         */
+        public Builder setSolidColor(int state, int color) {
+            setColor(SOLID_COLOR + state, color);
+            return this;
+        }
+
+        /**
+         * @param state
+         * @param color {@link #NONE}时使用默认状态的文本颜色
+         * @return
+         */
+        public Builder setTextColor(int state, int color) {
+            setColor(TEXT_COLOR + state, color);
+            return this;
+        }
+
+        /**
+         * 渐变颜色 , 优先于solid
+         *
+         * @param state
+         * @param startColor
+         * @param centerColor {@link #NONE}时只有起始和结束两种颜色
+         * @param endColor
+         * @return
+         */
+        public Builder setGradient(int state, int startColor, int centerColor, int endColor) {
+            setColor(GRADIENT_START_COLOR + state, startColor);
+            setColor(GRADIENT_CENTER_COLOR + state, centerColor);
+            setColor(GRADIENT_END_COLOR + state, endColor);
+            return this;
+        }
+
+        public Builder setGradientDirection(int state, int direction) {
+            values[GRADIENT_DIRECTION + state] = direction;
+            return this;
+        }
+
+        /**
+         * @param side
+         * @param color {@link #NONE}时不着色
+         * @return
+         */
+        public Builder setTint(int side, int color) {
+            setColor(TINT + side, color);
+            return this;
+        }
+
+        /**
+         * @param side
+         * @param resId  0时移除
+         * @param width  {@link #NONE}时使用固有宽度
+         * @param height {@link #NONE}时使用固有高度
+         * @return
+         */
+        public Builder setTintDrawable(int side, int resId, int width, int height) {
+            values[TINT_DRAWABLE + side] = resId;
+            values[TINT_DRAWABLE_WIDTH + side] = width;
+            values[TINT_DRAWABLE_HEIGHT + side] = height;
+            return this;
+        }
+
+        public Builder setDrawableAlign(int side, int align) {
+            values[DRAWABLE_ALIGN + side] = align;
+            return this;
+        }
+
+        public Builder setRasterizeDrawables(boolean rasterize) {
+            this.rasterize = rasterize;
+            return this;
+        }
+
+        public Builder setFadeDuring(int fadeDuring) {
+            this.fadeDuring = fadeDuring;
+            return this;
+        }
+
+        public Builder setRipple(boolean ripple) {
+            this.ripple = ripple;
+            return this;
+        }
+
+        /**
+         * 5.0+ pressed时的Z轴升降
+         *
+         * @param z
+         * @param during
+         * @param maxLift
+         * @return
+         */
+        public Builder setZ(boolean z, int during, int maxLift) {
+            this.z = z;
+            this.zDuring = during;
+            this.zMaxLift = maxLift;
+            return this;
+        }
+
+        /**
+         * 不可点击且软件绘制时将整个View渲染为位图 , 直到文本、尺寸、状态或配置变化 ,
+         * 位图占用的内存由{@link SnapshotCache}统一限制
+         *
+         * @param snapshot
+         * @return
+         */
+        public Builder setSnapshot(boolean snapshot) {
+            this.snapshot = snapshot;
+            return this;
+        }
+
+        /**
+         * @param state
+         * @param color 非默认状态为{@link #NONE}时使用默认状态的颜色
+         * @return
+         */
+        public Builder setBadgeColor(int state, int color) {
+            setColor(BADGE_COLOR + state, color);
+            return this;
+        }
+
+        public Builder setBadgeTextColor(int color) {
+            setColor(BADGE_TEXT_COLOR, color);
+            return this;
+        }
+
+        /**
+         * @param textSize 像素 , {@link #NONE}时为10sp
+         * @return
+         */
+        public Builder setBadgeTextSize(int textSize) {
+            this.badgeTextSize = textSize;
+            return this;
+        }
+
+        /**
+         * @param radius 像素 , {@link #NONE}时为4dp
+         * @return
+         */
+        public Builder setBadgeDotRadius(int radius) {
+            this.badgeDotRadius = radius;
+            return this;
+        }
+
+        /**
+         * @param maxCount 超出时显示为maxCount+
+         * @return
+         */
+        public Builder setBadgeMaxCount(int maxCount) {
+            this.badgeMaxCount = maxCount;
+            return this;
+        }
+
+        /**
+         * @param anchor {@link #LEFT} ... {@link #BOTTOM} , {@link #ANCHOR_TOP_LEFT} ... {@link #ANCHOR_BOTTOM_LEFT}
+         * @param offsetX 正值向右
+         * @param offsetY 正值向下
+         * @return
+         */
+        public Builder setBadgeAnchor(int anchor, int offsetX, int offsetY) {
+            this.badgeAnchor = anchor;
+            this.badgeOffsetX = offsetX;
+            this.badgeOffsetY = offsetY;
+            return this;
+        }
+
+        /**
+         * 引用颜色资源 , uiMode等配置变化时{@link CompatTextView}只重新解析颜色 ,
+         * 之后对同一属性调用颜色值的setter时不再引用该资源
+         *
+         * @param context
+         * @param attr    颜色属性 , 如R.styleable.CompatTextView_ctv_solidPressedColor
+         * @param resId
+         * @return
+         */
+        public Builder setColorResource(@NonNull Context context, @StyleableRes int attr, @ColorRes int resId) {
+            int index = colorIndex(attr);
+            values[index] = ContextCompat.getColor(context, resId);
+            colorResources[index] = resId;
+            return this;
+        }
+
+        /**
+         * 只记录颜色资源 , 颜色值已经由对应的setter设置 , 供生成代码使用 , 避免重复解析
+         *
+         * @param attr
+         * @param resId
+         * @return
+         */
+        public Builder setColorResource(@StyleableRes int attr, @ColorRes int resId) {
+            colorResources[colorIndex(attr)] = resId;
+            return this;
+        }
+
+        private static int colorIndex(@StyleableRes int attr) {
+            for (int i = 0; i < COLOR_ATTRS.length; i += 2) {
+                if (COLOR_ATTRS[i] == attr) {
+                    return COLOR_ATTRS[i + 1];
+                }
+            }
+            throw new IllegalArgumentException("not a color attribute: " + attr);
+        }
+
+        private void setColor(int index, int color) {
+            values[index] = color;
+            colorResources[index] = 0;
+        }
+
+        @NonNull
+        public CompatTextViewSpec build() {
+            return intern(new CompatTextViewSpec(this));
+        }
+
+        /**
+         * 应用到{@link CompatTextView#edit()}的View上 , 背景、Drawable和布局只各刷新一次
+         */
+        public void commit() {
+            if (null == target) {
+                throw new IllegalStateException("Builder is not created by CompatTextView.edit()");
+            }
+            target.applySpec(build());
+        }
+    }
+
+    /**
+     * style缓存的key , theme作为外层WeakHashMap的key
+     */
+    private static final class StyleKey {
+        private final int defStyleAttr;
+        private final int defStyleRes;
+        private final int style;
+        private final int uiMode;
+        private final int densityDpi;
+
+        StyleKey(int defStyleAttr, int defStyleRes, int style, int uiMode, int densityDpi) {
+            this.defStyleAttr = defStyleAttr;
+            this.defStyleRes = defStyleRes;
+            this.style = style;
+            this.uiMode = uiMode;
+            this.densityDpi = densityDpi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StyleKey)) {
+                return false;
+            }
+            StyleKey key = (StyleKey) o;
+            return defStyleAttr == key.defStyleAttr
+                    && defStyleRes == key.defStyleRes
+                    && style == key.style
+                    && uiMode == key.uiMode
+                    && densityDpi == key.densityDpi;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = defStyleAttr;
+            result = 31 * result + defStyleRes;
+            result = 31 * result + style;
+            result = 31 * result + uiMode;
+            result = 31 * result + densityDpi;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.tk.compattextview;
+
+import android.animation.ObjectAnimator;
+import android.animation.StateListAnimator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.v4.util.LruCache;
+import android.view.View;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 5.0+ Z轴升降的StateListAnimator , 每种(ctv_z_during , ctv_z_max_lift)只构建一次原型 ,
+ *              每个View使用clone , setStateListAnimator时框架会为clone设置target
+ * </pre>
+ */
+@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+final class LiftAnimators {
+    private static final int MAX_SIZE = 16;
+
+    private static final LruCache<Long, StateListAnimator> PROTOTYPES = new LruCache<>(MAX_SIZE);
+
+    private LiftAnimators() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * @param during
+     * @param maxLift
+     * @return 新的实例 , 不与其他View共享
+     */
+    @NonNull
+    static StateListAnimator obtain(int during, int maxLift) {
+        Long key = ((long) during << 32) | (maxLift & 0xFFFFFFFFL);
+        StateListAnimator prototype = PROTOTYPES.get(key);
+        if (null == prototype) {
+            prototype = create(during, maxLift);
+            PROTOTYPES.put(key, prototype);
+        }
+        //clone只复制动画参数 , 原型本身从不绑定target
+        synchronized (prototype) {
+            return prototype.clone();
+        }
+    }
+
+    private static StateListAnimator create(int during, int maxLift) {
+        StateListAnimator animator = new StateListAnimator();
+        //使用Property而不是属性名 , 避免clone后的每个View再反射查找setter
+        ObjectAnimator lift = ObjectAnimator.ofFloat(null, View.TRANSLATION_Z, 0, maxLift)
+                .setDuration(during);
+        ObjectAnimator drop = ObjectAnimator.ofFloat(null, View.TRANSLATION_Z, 0)
+                .setDuration(during);
+        animator.addState(CompatTextView.STATES[1], lift);
+        animator.addState(CompatTextView.STATES[3], drop);
+        return animator;
+    }
+}
@@ -0,0 +1,155 @@
+package com.tk.compattextview;
+
+import android.graphics.Typeface;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 在后台线程预先完成的文本测量 , 当前support库版本没有PrecomputedTextCompat , 用StaticLayout代替 :
+ *              后台线程构建时会预热系统的文字排版缓存 , 主线程TextView再次测量时直接命中 ,
+ *              宽度一致时CompatTextView的Drawable对齐直接使用该Layout而不需要等待TextView的Layout
+ *
+ *              PrecomputedLayout.Params params = textView.getTextMetricsParams();
+ *              //后台线程
+ *              PrecomputedLayout layout = PrecomputedLayout.create(text, params, width);
+ *              //主线程
+ *              textView.setPrecomputedText(layout);
+ * </pre>
+ */
+public final class PrecomputedLayout {
+    private final CharSequence mText;
+    private final Params mParams;
+    private final int mWidth;
+    private final StaticLayout mLayout;
+
+    private PrecomputedLayout(CharSequence text, Params params, int width, StaticLayout layout) {
+        mText = text;
+        mParams = params;
+        mWidth = width;
+        mLayout = layout;
+    }
+
+    /**
+     * 可以在任意线程调用
+     *
+     * @param text
+     * @param params 在主线程通过{@link CompatTextView#getTextMetricsParams()}获取
+     * @param width  文本区域的宽度 , 即View宽度减去左右的compound padding
+     * @return
+     */
+    @NonNull
+    public static PrecomputedLayout create(@NonNull CharSequence text, @NonNull Params params, int width) {
+        width = Math.max(0, width);
+        StaticLayout layout;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            layout = StaticLayout.Builder.obtain(text, 0, text.length(), params.mPaint, width)
+                    .setLineSpacing(params.mSpacingAdd, params.mSpacingMult)
+                    .setIncludePad(params.mIncludePad)
+                    .setBreakStrategy(params.mBreakStrategy)
+                    .setHyphenationFrequency(params.mHyphenationFrequency)
+                    .build();
+        } else {
+            layout = new StaticLayout(text, params.mPaint, width, Layout.Alignment.ALIGN_NORMAL,
+                    params.mSpacingMult, params.mSpacingAdd, params.mIncludePad);
+        }
+        return new PrecomputedLayout(text, params, width, layout);
+    }
+
+    @NonNull
+    public CharSequence getText() {
+        return mText;
+    }
+
+    @NonNull
+    public Params getParams() {
+        return mParams;
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getLineCount() {
+        return mLayout.getLineCount();
+    }
+
+    /**
+     * @return 文本高度 , 不包含padding
+     */
+    public int getHeight() {
+        return mLayout.getHeight();
+    }
+
+    @NonNull
+    Layout getLayout() {
+        return mLayout;
+    }
+
+    /**
+     * 影响换行和行高的文字参数 , 与TextView不一致时不能使用
+     */
+    public static final class Params {
+        private final TextPaint mPaint;
+        private final float mSpacingMult;
+        private final float mSpacingAdd;
+        private final boolean mIncludePad;
+        private final int mBreakStrategy;
+        private final int mHyphenationFrequency;
+
+        Params(@NonNull TextPaint paint, float spacingMult, float spacingAdd, boolean includePad,
+               int breakStrategy, int hyphenationFrequency) {
+            //复制一份 , 后台线程使用时不受TextView修改的影响
+            mPaint = new TextPaint(paint);
+            mSpacingMult = spacingMult;
+            mSpacingAdd = spacingAdd;
+            mIncludePad = includePad;
+            mBreakStrategy = breakStrategy;
+            mHyphenationFrequency = hyphenationFrequency;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Params)) {
+                return false;
+            }
+            Params params = (Params) o;
+            if (mSpacingMult != params.mSpacingMult
+                    || mSpacingAdd != params.mSpacingAdd
+                    || mIncludePad != params.mIncludePad
+                    || mBreakStrategy != params.mBreakStrategy
+                    || mHyphenationFrequency != params.mHyphenationFrequency
+                    || mPaint.getTextSize() != params.mPaint.getTextSize()
+                    || mPaint.getTextScaleX() != params.mPaint.getTextScaleX()
+                    || mPaint.getTextSkewX() != params.mPaint.getTextSkewX()
+                    || mPaint.getFlags() != params.mPaint.getFlags()) {
+                return false;
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP
+                    && mPaint.getLetterSpacing() != params.mPaint.getLetterSpacing()) {
+                return false;
+            }
+            Typeface typeface = mPaint.getTypeface();
+            return null == typeface ? null == params.mPaint.getTypeface() : typeface.equals(params.mPaint.getTypeface());
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(mPaint.getTextSize());
+            result = 31 * result + Float.floatToIntBits(mSpacingMult);
+            result = 31 * result + Float.floatToIntBits(mSpacingAdd);
+            result = 31 * result + (mIncludePad ? 1 : 0);
+            result = 31 * result + mBreakStrategy;
+            result = 31 * result + mHyphenationFrequency;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tk.compattextview;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 在后台线程根据Spec构建好的背景和Drawable , 由主线程一次性应用到CompatTextView ,
+ *              构建过程只访问线程安全的缓存({@link BackgroundCache} , {@link TintUtils} , {@link RasterAtlas}) ,
+ *              图集在后台线程只读取已有的图标 , 未命中时使用着色的Drawable
+ * </pre>
+ */
+final class PreparedSpec {
+    /**
+     * left , top , right , bottom , 未配置时为null
+     */
+    final Drawable[] compoundDrawables = new Drawable[4];
+    final Drawable rippleBackground;
+    final Drawable stateListBackground;
+
+    private PreparedSpec(@NonNull Context context, @NonNull CompatTextViewSpec spec) {
+        for (int i = 0; i < 4; i++) {
+            compoundDrawables[i] = CompatTextView.loadTintDrawable(context, spec, i);
+        }
+        if (CompatShapeDrawable.hasPart(spec)) {
+            stateListBackground = CompatTextView.obtainBackgroundDrawable(spec, context.getResources(), false);
+            rippleBackground = CompatTextView.canRipple(spec)
+                    ? CompatTextView.obtainBackgroundDrawable(spec, context.getResources(), true)
+                    : null;
+        } else {
+            stateListBackground = null;
+            rippleBackground = null;
+        }
+    }
+
+    /**
+     * 可以在任意线程调用
+     *
+     * @param context
+     * @param spec
+     * @return
+     */
+    @NonNull
+    static PreparedSpec prepare(@NonNull Context context, @NonNull CompatTextViewSpec spec) {
+        return new PreparedSpec(context, spec);
+    }
+}
@@ -0,0 +1,269 @@
+package com.tk.compattextview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Looper;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.tk.compattextview.CompatTextView.NULL;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 着色后的Drawable预先渲染到共享的位图图集中 , 绘制时直接绘制位图 ,
+ *              避免VectorDrawable每次绘制都重新渲染路径 , 仅适用于无状态的图标 ;
+ *              页的位图在交给View绘制后仍会写入新的图标 , 写入只在主线程进行 , 与绘制不会同时发生
+ * </pre>
+ */
+final class RasterAtlas {
+    private static final int PAGE_SIZE = 512;
+    /**
+     * 页数上限 , 已分配的页可能仍在被View绘制 , 满了之后新的图标直接使用着色的Drawable
+     */
+    private static final int MAX_PAGES = 4;
+    /**
+     * 区域之间留出1px , 避免缩放时采样到相邻图标
+     */
+    private static final int PADDING = 1;
+
+    private static final List<Page> PAGES = new ArrayList<>();
+    private static final Map<Key, Region> REGIONS = new HashMap<>();
+
+    private RasterAtlas() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 获取栅格化的Drawable , 图集放不下时返回原始的Drawable
+     *
+     * @param context
+     * @param resId
+     * @param color   {@link CompatTextView#NULL}时不着色
+     * @param width   小于0时使用固有宽度
+     * @param height  小于0时使用固有高度
+     * @return
+     */
+    @Nullable
+    static synchronized Drawable obtain(@NonNull Context context, @DrawableRes int resId,
+                                        int color, int width, int height) {
+        //夜间模式下同一个资源id可能对应drawable-night中的另一个文件
+        final Resources res = context.getResources();
+        Key key = new Key(resId, color, width, height,
+                res.getDisplayMetrics().densityDpi, res.getConfiguration().uiMode);
+        Region region = REGIONS.get(key);
+        CompatTextView.reportCache(CompatTextView.Metrics.CACHE_ATLAS, null != region);
+        if (null != region) {
+            return new AtlasDrawable(region);
+        }
+        Drawable source = NULL == color
+                ? TintUtils.getDrawable(context, resId, width, height)
+                : TintUtils.getTintDrawable(context, resId, color, width, height);
+        if (null == source || Looper.myLooper() != Looper.getMainLooper()) {
+            //后台线程(如bindAsync、AsyncLayoutInflater)未命中时不写入图集 , 直接使用着色的Drawable
+            return source;
+        }
+        Rect bounds = source.getBounds();
+        region = allocate(bounds.width(), bounds.height());
+        if (null == region) {
+            return source;
+        }
+        Canvas canvas = region.page.canvas;
+        int count = canvas.save();
+        canvas.clipRect(region.rect.left, region.rect.top, region.rect.right, region.rect.bottom);
+        canvas.translate(region.rect.left - bounds.left, region.rect.top - bounds.top);
+        source.draw(canvas);
+        canvas.restoreToCount(count);
+        REGIONS.put(key, region);
+        return new AtlasDrawable(region);
+    }
+
+    /**
+     * @return 已栅格化的图标数
+     */
+    static synchronized int size() {
+        return REGIONS.size();
+    }
+
+    /**
+     * 释放图集 , 已经在使用的位图随View一起回收
+     */
+    static synchronized void clear() {
+        REGIONS.clear();
+        PAGES.clear();
+    }
+
+    @Nullable
+    private static Region allocate(int width, int height) {
+        if (width <= 0 || height <= 0 || width > PAGE_SIZE || height > PAGE_SIZE) {
+            return null;
+        }
+        for (int i = 0, size = PAGES.size(); i < size; i++) {
+            Region region = PAGES.get(i).allocate(width, height);
+            if (null != region) {
+                return region;
+            }
+        }
+        if (PAGES.size() >= MAX_PAGES) {
+            //清空后已有的AtlasDrawable仍然持有旧的页 , 图集满了不再分配
+            return null;
+        }
+        Page page = new Page();
+        PAGES.add(page);
+        return page.allocate(width, height);
+    }
+
+    /**
+     * 图集的一页 , 按行(shelf)从左到右分配
+     */
+    private static final class Page {
+        final Bitmap bitmap;
+        final Canvas canvas;
+        private int cursorX;
+        private int shelfY;
+        private int shelfHeight;
+
+        Page() {
+            bitmap = Bitmap.createBitmap(PAGE_SIZE, PAGE_SIZE, Bitmap.Config.ARGB_8888);
+            canvas = new Canvas(bitmap);
+        }
+
+        @Nullable
+        Region allocate(int width, int height) {
+            if (cursorX + width > PAGE_SIZE) {
+                shelfY += shelfHeight;
+                cursorX = 0;
+                shelfHeight = 0;
+            }
+            if (shelfY + height > PAGE_SIZE) {
+                return null;
+            }
+            Region region = new Region(this, new Rect(cursorX, shelfY, cursorX + width, shelfY + height));
+            cursorX += width + PADDING;
+            shelfHeight = Math.max(shelfHeight, height + PADDING);
+            return region;
+        }
+    }
+
+    private static final class Region {
+        final Page page;
+        final Rect rect;
+
+        Region(Page page, Rect rect) {
+            this.page = page;
+            this.rect = rect;
+        }
+    }
+
+    /**
+     * 从图集中绘制对应区域
+     */
+    private static final class AtlasDrawable extends Drawable {
+        private final Bitmap mBitmap;
+        private final Rect mSrc;
+        private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+        AtlasDrawable(Region region) {
+            mBitmap = region.page.bitmap;
+            mSrc = region.rect;
+            setBounds(0, 0, mSrc.width(), mSrc.height());
+        }
+
+        @Override
+        public void draw(@NonNull Canvas canvas) {
+            canvas.drawBitmap(mBitmap, mSrc, getBounds(), mPaint);
+        }
+
+        @Override
+        public void setAlpha(int alpha) {
+            mPaint.setAlpha(alpha);
+            invalidateSelf();
+        }
+
+        @Override
+        public int getAlpha() {
+            return mPaint.getAlpha();
+        }
+
+        @Override
+        public void setColorFilter(@Nullable ColorFilter colorFilter) {
+            mPaint.setColorFilter(colorFilter);
+            invalidateSelf();
+        }
+
+        @Override
+        public int getOpacity() {
+            return PixelFormat.TRANSLUCENT;
+        }
+
+        @Override
+        public int getIntrinsicWidth() {
+            return mSrc.width();
+        }
+
+        @Override
+        public int getIntrinsicHeight() {
+            return mSrc.height();
+        }
+    }
+
+    private static final class Key {
+        private final int resId;
+        private final int color;
+        private final int width;
+        private final int height;
+        private final int densityDpi;
+        private final int uiMode;
+
+        Key(int resId, int color, int width, int height, int densityDpi, int uiMode) {
+            this.resId = resId;
+            this.color = color;
+            this.width = width;
+            this.height = height;
+            this.densityDpi = densityDpi;
+            this.uiMode = uiMode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return resId == key.resId
+                    && color == key.color
+                    && width == key.width
+                    && height == key.height
+                    && densityDpi == key.densityDpi
+                    && uiMode == key.uiMode;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = resId;
+            result = 31 * result + color;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + densityDpi;
+            result = 31 * result + uiMode;
+            return result;
+        }
+    }
+}
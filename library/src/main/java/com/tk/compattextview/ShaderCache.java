@@ -0,0 +1,167 @@
+package com.tk.compattextview;
+
+import android.graphics.LinearGradient;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.drawable.GradientDrawable;
+import android.support.annotation.NonNull;
+import android.support.v4.util.LruCache;
+
+import java.util.Arrays;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 渐变Shader的进程级缓存 , 相同(颜色 , 方向 , 区域)的渐变在多个View和状态之间共享 ,
+ *              Shader创建后不再修改(不设置LocalMatrix) , 可以安全共享
+ * </pre>
+ */
+public final class ShaderCache {
+    public static final int DEFAULT_MAX_SIZE = 32;
+
+    private static final LruCache<Key, Shader> CACHE = new LruCache<>(DEFAULT_MAX_SIZE);
+
+    private ShaderCache() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 获取线性渐变 , 未命中时创建并缓存
+     *
+     * @param colors      调用方不再修改该数组
+     * @param orientation
+     * @param rect
+     * @return
+     */
+    @NonNull
+    static Shader obtain(@NonNull int[] colors, @NonNull GradientDrawable.Orientation orientation, @NonNull RectF rect) {
+        Key key = new Key(colors, orientation, rect);
+        Shader shader = CACHE.get(key);
+        CompatTextView.reportCache(CompatTextView.Metrics.CACHE_SHADER, null != shader);
+        if (null == shader) {
+            shader = create(colors, orientation, rect);
+            CACHE.put(key, shader);
+        }
+        return shader;
+    }
+
+    /**
+     * 创建线性渐变 , 不经过缓存 , 用于fadeDuring过程中的中间帧
+     *
+     * @param colors
+     * @param orientation
+     * @param rect
+     * @return
+     */
+    @NonNull
+    static Shader create(@NonNull int[] colors, @NonNull GradientDrawable.Orientation orientation, @NonNull RectF rect) {
+        CompatTextView.reportDrawableCreated(CompatTextView.Metrics.DRAWABLE_SHADER);
+        float x0 = rect.left;
+        float y0 = rect.top;
+        float x1 = rect.left;
+        float y1 = rect.bottom;
+        switch (orientation) {
+            case LEFT_RIGHT:
+                x1 = rect.right;
+                y1 = rect.top;
+                break;
+            case TL_BR:
+                x1 = rect.right;
+                break;
+            case BL_TR:
+                y0 = rect.bottom;
+                x1 = rect.right;
+                y1 = rect.top;
+                break;
+            default:
+                break;
+        }
+        return new LinearGradient(x0, y0, x1, y1, colors, null, Shader.TileMode.CLAMP);
+    }
+
+    public static int hitCount() {
+        return CACHE.hitCount();
+    }
+
+    public static int missCount() {
+        return CACHE.missCount();
+    }
+
+    public static int evictionCount() {
+        return CACHE.evictionCount();
+    }
+
+    public static int size() {
+        return CACHE.size();
+    }
+
+    public static int maxSize() {
+        return CACHE.maxSize();
+    }
+
+    /**
+     * 调整缓存上限 , 超出部分按LRU淘汰
+     *
+     * @param maxSize
+     */
+    public static void resize(int maxSize) {
+        CACHE.resize(maxSize);
+    }
+
+    public static void clear() {
+        CACHE.evictAll();
+    }
+
+    /**
+     * 区域使用绘制时的实际坐标(已扣除边框内缩) , 而不只是宽高
+     */
+    private static final class Key {
+        private final int[] colors;
+        private final GradientDrawable.Orientation orientation;
+        private final float left;
+        private final float top;
+        private final float right;
+        private final float bottom;
+        private final int hashCode;
+
+        Key(int[] colors, GradientDrawable.Orientation orientation, RectF rect) {
+            this.colors = colors;
+            this.orientation = orientation;
+            this.left = rect.left;
+            this.top = rect.top;
+            this.right = rect.right;
+            this.bottom = rect.bottom;
+            int result = Arrays.hashCode(colors);
+            result = 31 * result + orientation.hashCode();
+            result = 31 * result + Float.floatToIntBits(left);
+            result = 31 * result + Float.floatToIntBits(top);
+            result = 31 * result + Float.floatToIntBits(right);
+            result = 31 * result + Float.floatToIntBits(bottom);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && orientation == key.orientation
+                    && left == key.left
+                    && top == key.top
+                    && right == key.right
+                    && bottom == key.bottom
+                    && Arrays.equals(colors, key.colors);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
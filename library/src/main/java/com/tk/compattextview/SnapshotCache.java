@@ -0,0 +1,118 @@
+package com.tk.compattextview;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : ctv_snapshot的位图 , 由View自己持有 , 这里只统计所有View占用的字节数并限制上限 ,
+ *              超出上限的View不使用快照 ; View释放的位图按尺寸放入复用池 , 同样计入上限 , 只在主线程访问
+ * </pre>
+ */
+public final class SnapshotCache {
+    public static final int DEFAULT_MAX_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * 尺寸 -> 释放的位图 , 同一尺寸只保留一个
+     */
+    private static final LruCache<Long, Bitmap> POOL = new LruCache<Long, Bitmap>(DEFAULT_MAX_SIZE) {
+        @Override
+        protected int sizeOf(Long key, Bitmap value) {
+            return value.getByteCount();
+        }
+    };
+    private static int sMaxSize = DEFAULT_MAX_SIZE;
+    /**
+     * View持有的位图的字节数
+     */
+    private static int sUsedSize;
+
+    private SnapshotCache() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 分配位图 , 复用池中有相同尺寸的位图时清空后复用
+     *
+     * @param width
+     * @param height
+     * @return 超出内存上限时返回null , 此时不使用快照
+     */
+    @Nullable
+    static Bitmap obtain(int width, int height) {
+        final long bytes = (long) width * height * 4;
+        //单个位图超过上限的1/4时 , 会挤占其他View的快照 , 不值得缓存
+        if (bytes > sMaxSize / 4) {
+            return null;
+        }
+        Bitmap bitmap = POOL.remove(key(width, height));
+        CompatTextView.reportCache(CompatTextView.Metrics.CACHE_SNAPSHOT, null != bitmap);
+        if (null != bitmap) {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        } else {
+            if (sUsedSize + bytes > sMaxSize) {
+                return null;
+            }
+            //优先淘汰复用池 , 为View持有的位图腾出空间
+            POOL.trimToSize((int) Math.max(0, sMaxSize - sUsedSize - bytes));
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+        sUsedSize += bitmap.getByteCount();
+        return bitmap;
+    }
+
+    /**
+     * View尺寸变化、离开屏幕或不再使用快照时释放 , 放入复用池
+     *
+     * @param bitmap
+     */
+    static void release(@NonNull Bitmap bitmap) {
+        sUsedSize -= bitmap.getByteCount();
+        POOL.put(key(bitmap.getWidth(), bitmap.getHeight()), bitmap);
+        POOL.trimToSize(Math.max(0, sMaxSize - sUsedSize));
+    }
+
+    private static long key(int width, int height) {
+        return (long) width << 32 | height;
+    }
+
+    /**
+     * @return 当前占用的字节数 , 包括复用池
+     */
+    public static int size() {
+        return sUsedSize + POOL.size();
+    }
+
+    public static int maxSize() {
+        return sMaxSize;
+    }
+
+    /**
+     * @return 复用池淘汰的位图数量
+     */
+    public static int evictionCount() {
+        return POOL.evictionCount();
+    }
+
+    /**
+     * 调整内存上限 , 只影响之后的分配 , 复用池超出部分按LRU淘汰
+     *
+     * @param maxSize 字节
+     */
+    public static void resize(int maxSize) {
+        sMaxSize = maxSize;
+        POOL.trimToSize(Math.max(0, sMaxSize - sUsedSize));
+    }
+
+    /**
+     * 清空复用池 , View持有的位图在View释放时回收
+     */
+    public static void clear() {
+        POOL.evictAll();
+    }
+}
@@ -0,0 +1,173 @@
+package com.tk.compattextview;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 编译期生成的Spec注册表 , 由generator模块扫描styles和layout生成{@link Provider} ,
+ *              命中时CompatTextView不再解析ctv_*属性 , 未命中的组合仍然走运行时解析
+ * </pre>
+ */
+public final class SpecRegistry {
+    private static final int CACHE_SIZE = 64;
+
+    private static final List<Provider> PROVIDERS = new ArrayList<>();
+    private static final LruCache<Key, CompatTextViewSpec> CACHE = new LruCache<>(CACHE_SIZE);
+
+    private SpecRegistry() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 生成的Spec工厂
+     */
+    public interface Provider {
+        /**
+         * @param id          style的资源id , 或布局中CompatTextView的android:id
+         * @param fingerprint 内联ctv_*属性的{@link #fingerprint(String...)} , style为0 ,
+         *                    避免其他模块或未扫描的布局中使用了相同id、不同配置时误用
+         * @param context
+         * @return 未生成或fingerprint不一致时返回null
+         */
+        @Nullable
+        CompatTextViewSpec create(int id, int fingerprint, @NonNull Context context);
+    }
+
+    /**
+     * 在Application#onCreate中注册生成的CompatTextViewSpecs , 同一个类只保留最后一次注册的实例
+     *
+     * @param provider
+     */
+    public static void register(@NonNull Provider provider) {
+        synchronized (PROVIDERS) {
+            for (int i = PROVIDERS.size() - 1; i >= 0; i--) {
+                if (PROVIDERS.get(i).getClass() == provider.getClass()) {
+                    PROVIDERS.remove(i);
+                }
+            }
+            PROVIDERS.add(provider);
+        }
+        CACHE.evictAll();
+    }
+
+    public static void unregister(@NonNull Provider provider) {
+        synchronized (PROVIDERS) {
+            PROVIDERS.remove(provider);
+        }
+        CACHE.evictAll();
+    }
+
+    /**
+     * 内联属性的指纹 : 属性名与{@link android.util.AttributeSet#getAttributeValue(int)}的hashCode之和 ,
+     * 与属性顺序无关 , 生成代码中的值需要与aapt编译后的字符串一致(如#ffff0000、16.0dip、@2131034112) ,
+     * 不一致时只会未命中 , 交给运行时解析
+     *
+     * @param nameValues 属性名 , 值 , 属性名 , 值...
+     * @return
+     */
+    public static int fingerprint(@NonNull String... nameValues) {
+        int fingerprint = 0;
+        for (int i = 0; i < nameValues.length; i += 2) {
+            fingerprint += fingerprint(nameValues[i], nameValues[i + 1]);
+        }
+        return fingerprint;
+    }
+
+    static int fingerprint(@NonNull String name, @Nullable String value) {
+        return 31 * name.hashCode() + (null == value ? 0 : value.hashCode());
+    }
+
+    public static int hitCount() {
+        return CACHE.hitCount();
+    }
+
+    public static int missCount() {
+        return CACHE.missCount();
+    }
+
+    /**
+     * 查找生成的Spec , 按(id , fingerprint , uiMode , densityDpi)缓存 , 生成代码中的颜色和尺寸可能来自资源
+     *
+     * @param id
+     * @param fingerprint
+     * @param context
+     * @return
+     */
+    @Nullable
+    static CompatTextViewSpec get(int id, int fingerprint, @NonNull Context context) {
+        if (0 == id || -1 == id || isEmpty()) {
+            return null;
+        }
+        Configuration configuration = context.getResources().getConfiguration();
+        Key key = new Key(id, fingerprint, configuration.uiMode, configuration.densityDpi);
+        CompatTextViewSpec spec = CACHE.get(key);
+        if (null != spec) {
+            return spec;
+        }
+        synchronized (PROVIDERS) {
+            for (int i = 0, size = PROVIDERS.size(); i < size; i++) {
+                spec = PROVIDERS.get(i).create(id, fingerprint, context);
+                if (null != spec) {
+                    break;
+                }
+            }
+        }
+        if (null != spec) {
+            CACHE.put(key, spec);
+        }
+        return spec;
+    }
+
+    private static boolean isEmpty() {
+        synchronized (PROVIDERS) {
+            return PROVIDERS.isEmpty();
+        }
+    }
+
+    private static final class Key {
+        private final int id;
+        private final int fingerprint;
+        private final int uiMode;
+        private final int densityDpi;
+
+        Key(int id, int fingerprint, int uiMode, int densityDpi) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+            this.uiMode = uiMode;
+            this.densityDpi = densityDpi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return id == key.id
+                    && fingerprint == key.fingerprint
+                    && uiMode == key.uiMode
+                    && densityDpi == key.densityDpi;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = id;
+            result = 31 * result + fingerprint;
+            result = 31 * result + uiMode;
+            result = 31 * result + densityDpi;
+            return result;
+        }
+    }
+}
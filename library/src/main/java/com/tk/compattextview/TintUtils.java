@@ -1,14 +1,18 @@
 package com.tk.compattextview;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.ColorInt;
+import android.support.annotation.DrawableRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.StyleableRes;
 import android.support.v4.content.ContextCompat;
 import android.support.v4.graphics.drawable.DrawableCompat;
+import android.support.v4.util.LruCache;
 
 /**
  * <pre>
@@ -18,6 +22,10 @@ import android.support.v4.graphics.drawable.DrawableCompat;
  * </pre>
  */
 public final class TintUtils {
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private static final LruCache<Key, Drawable.ConstantState> CACHE = new LruCache<>(DEFAULT_MAX_SIZE);
+
     private TintUtils() {
         throw new IllegalStateException();
     }
@@ -36,6 +44,37 @@ public final class TintUtils {
         return resourceId == -1 ? null : ContextCompat.getDrawable(context, resourceId);
     }
 
+    /**
+     * 获取着色后的Drawable , 相同(资源 , 颜色 , 宽高 , density , uiMode)的Drawable共享ConstantState ,
+     * 需要单独修改时自行调用{@link Drawable#mutate()}
+     *
+     * @param context
+     * @param resId
+     * @param color
+     * @param width   小于0时使用固有宽度
+     * @param height  小于0时使用固有高度
+     * @return
+     */
+    @Nullable
+    public static Drawable getTintDrawable(@NonNull Context context, @DrawableRes int resId,
+                                           @ColorInt int color, int width, int height) {
+        return obtain(context, resId, true, color, width, height);
+    }
+
+    /**
+     * 获取未着色的Drawable , 同样共享ConstantState
+     *
+     * @param context
+     * @param resId
+     * @param width   小于0时使用固有宽度
+     * @param height  小于0时使用固有高度
+     * @return
+     */
+    @Nullable
+    public static Drawable getDrawable(@NonNull Context context, @DrawableRes int resId, int width, int height) {
+        return obtain(context, resId, false, 0, width, height);
+    }
+
     /**
      * 着色
      *
@@ -47,4 +86,118 @@ public final class TintUtils {
         DrawableCompat.setTint(d, color);
         return d;
     }
-}
\ No newline at end of file
+
+    public static int hitCount() {
+        return CACHE.hitCount();
+    }
+
+    public static int missCount() {
+        return CACHE.missCount();
+    }
+
+    public static int evictionCount() {
+        return CACHE.evictionCount();
+    }
+
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * 内存紧张时释放Tint Drawable的缓存 , 释放所有缓存使用{@link CompatTextView#trimMemory(int)}
+     *
+     * @param level
+     */
+    public static void trim(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            CACHE.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            CACHE.trimToSize(CACHE.size() / 2);
+        }
+    }
+
+    @Nullable
+    private static Drawable obtain(@NonNull Context context, @DrawableRes int resId,
+                                   boolean tint, int color, int width, int height) {
+        //夜间模式下同一个资源id可能对应drawable-night中的另一个文件
+        final Resources res = context.getResources();
+        Key key = new Key(resId, tint, color, width, height,
+                res.getDisplayMetrics().densityDpi, res.getConfiguration().uiMode);
+        Drawable.ConstantState state = CACHE.get(key);
+        CompatTextView.reportCache(CompatTextView.Metrics.CACHE_DRAWABLE, null != state);
+        Drawable drawable;
+        if (null != state) {
+            drawable = state.newDrawable(res);
+        } else {
+            drawable = ContextCompat.getDrawable(context, resId);
+            if (null == drawable) {
+                return null;
+            }
+            CompatTextView.reportDrawableCreated(CompatTextView.Metrics.DRAWABLE_COMPOUND);
+            //只在第一次加载时mutate , 避免污染Resources中的Drawable
+            drawable = tint ? tint(drawable, color) : drawable.mutate();
+            state = drawable.getConstantState();
+            if (null != state) {
+                CACHE.put(key, state);
+                //缓存的实例已经mutate过 , 再次mutate()不会分离 , 交出去后着色会修改缓存中的ConstantState
+                drawable = state.newDrawable(res);
+            }
+        }
+        drawable.setBounds(0, 0,
+                width < 0 ? drawable.getIntrinsicWidth() : width,
+                height < 0 ? drawable.getIntrinsicHeight() : height);
+        return drawable;
+    }
+
+    private static final class Key {
+        private final int resId;
+        private final boolean tint;
+        private final int color;
+        private final int width;
+        private final int height;
+        private final int densityDpi;
+        private final int uiMode;
+
+        Key(int resId, boolean tint, int color, int width, int height, int densityDpi, int uiMode) {
+            this.resId = resId;
+            this.tint = tint;
+            this.color = color;
+            this.width = width;
+            this.height = height;
+            this.densityDpi = densityDpi;
+            this.uiMode = uiMode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return resId == key.resId
+                    && tint == key.tint
+                    && color == key.color
+                    && width == key.width
+                    && height == key.height
+                    && densityDpi == key.densityDpi
+                    && uiMode == key.uiMode;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = resId;
+            result = 31 * result + (tint ? 1 : 0);
+            result = 31 * result + color;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + densityDpi;
+            result = 31 * result + uiMode;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.tk.compattextview;
+
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.RippleDrawable;
+import android.util.AttributeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 涟漪和StateList两种背景各自只构建一次 , 之后切换selected、enabled、pressed时直接复用
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class BackgroundReuseTest {
+
+    @Before
+    public void setUp() {
+        BackgroundCache.clear();
+    }
+
+    @Test
+    public void toggleStates() {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.ctv_solidColor, "#ffffff")
+                .addAttribute(R.attr.ctv_solidPressedColor, "#888888")
+                .addAttribute(R.attr.ctv_solidSelectedColor, "#0000ff")
+                .addAttribute(R.attr.ctv_solidDisabledColor, "#cccccc")
+                .addAttribute(R.attr.ctv_ripple, "true")
+                .build();
+        CompatTextView view = new CompatTextView(TestViews.context(), attrs);
+        //可点击时才会使用涟漪背景
+        view.setClickable(true);
+        //预热 : 涟漪和StateList背景各构建一次
+        toggle(view);
+        Drawable ripple = view.getBackground();
+        view.setSelected(true);
+        Drawable stateList = view.getBackground();
+        view.setSelected(false);
+        assertNotSame(ripple, stateList);
+        int misses = BackgroundCache.missCount();
+        int hits = BackgroundCache.hitCount();
+
+        for (int i = 0; i < 100; i++) {
+            toggle(view);
+            Drawable background = view.getBackground();
+            assertTrue(background == ripple || background == stateList);
+        }
+        //不再构建 , 也不再访问缓存
+        assertEquals(misses, BackgroundCache.missCount());
+        assertEquals(hits, BackgroundCache.hitCount());
+        assertSame(ripple, view.getBackground());
+    }
+
+    @Test
+    public void duplicateParentState() {
+        CompatTextView view = new CompatTextView(TestViews.context());
+        view.edit()
+                .setSolidColor(CompatTextViewSpec.STATE_DEFAULT, Color.WHITE)
+                .setSolidColor(CompatTextViewSpec.STATE_PRESSED, Color.GRAY)
+                .setRipple(true)
+                .setZ(true, 150, 4)
+                .setSnapshot(true)
+                .commit();
+        assertFalse(view.getBackground() instanceof RippleDrawable);
+        assertNull(view.getStateListAnimator());
+
+        //pressed状态由可点击的父View传递
+        view.setDuplicateParentStateEnabled(true);
+        assertTrue(view.getBackground() instanceof RippleDrawable);
+        assertNotNull(view.getStateListAnimator());
+    }
+
+    private static void toggle(CompatTextView view) {
+        view.setPressed(true);
+        view.setPressed(false);
+        view.setSelected(true);
+        view.setEnabled(false);
+        view.setEnabled(true);
+        view.setSelected(false);
+        view.setEnabled(false);
+        view.setEnabled(true);
+    }
+}
@@ -0,0 +1,133 @@
+package com.tk.compattextview;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.Color;
+import android.graphics.drawable.RippleDrawable;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.reflect.Field;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 文本和涟漪的ColorStateList按颜色去重 , 不同View、反复bind时为同一个实例
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class ColorStateListsTest {
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = TestViews.context();
+        ColorStateLists.clear();
+    }
+
+    @Test
+    public void textColors() {
+        CompatTextViewSpec red = textSpec(Color.RED);
+        CompatTextViewSpec blue = textSpec(Color.BLUE);
+        CompatTextView first = new CompatTextView(mContext);
+        CompatTextView second = new CompatTextView(mContext);
+        first.bind(red);
+        second.bind(red);
+        ColorStateList colors = first.getTextColors();
+        assertSame(colors, second.getTextColors());
+
+        second.bind(blue);
+        assertNotSame(colors, second.getTextColors());
+        ColorStateList blueColors = second.getTextColors();
+        for (int i = 0; i < 10; i++) {
+            second.bind(red);
+            assertSame(colors, second.getTextColors());
+            second.bind(blue);
+            assertSame(blueColors, second.getTextColors());
+        }
+    }
+
+    @Test
+    public void originalTextColors() {
+        CompatTextView view = new CompatTextView(mContext);
+        ColorStateList original = view.getTextColors();
+        view.bind(textSpec(Color.RED));
+        //只配置了按下颜色 , 默认颜色回退到构造时的颜色 , 而不是上一个配置的黑色
+        view.bind(new CompatTextViewSpec.Builder()
+                .setTextColor(CompatTextViewSpec.STATE_PRESSED, Color.RED)
+                .build());
+        assertEquals(original.getDefaultColor(), view.getTextColors().getDefaultColor());
+        //没有配置文本颜色时恢复构造时的ColorStateList
+        view.bind(new CompatTextViewSpec.Builder().build());
+        assertSame(original, view.getTextColors());
+    }
+
+    @Test
+    public void rippleColors() throws Exception {
+        CompatTextView first = clickable();
+        CompatTextView second = clickable();
+        first.bind(rippleSpec(Color.WHITE));
+        //背景不同 , 按下颜色相同
+        second.bind(rippleSpec(Color.LTGRAY));
+        ColorStateList color = rippleColor(first);
+        assertSame(color, rippleColor(second));
+        assertSame(color, ColorStateLists.valueOf(Color.GRAY));
+
+        for (int i = 0; i < 10; i++) {
+            second.bind(rippleSpec(Color.WHITE));
+            second.bind(rippleSpec(Color.LTGRAY));
+            assertSame(color, rippleColor(second));
+        }
+    }
+
+    private static CompatTextViewSpec textSpec(int pressed) {
+        return new CompatTextViewSpec.Builder()
+                .setTextColor(CompatTextViewSpec.STATE_DEFAULT, Color.BLACK)
+                .setTextColor(CompatTextViewSpec.STATE_PRESSED, pressed)
+                .setTextColor(CompatTextViewSpec.STATE_DISABLED, Color.GRAY)
+                .build();
+    }
+
+    private static CompatTextViewSpec rippleSpec(int normal) {
+        return new CompatTextViewSpec.Builder()
+                .setSolidColor(CompatTextViewSpec.STATE_DEFAULT, normal)
+                .setSolidColor(CompatTextViewSpec.STATE_PRESSED, Color.GRAY)
+                .setRipple(true)
+                .build();
+    }
+
+    private CompatTextView clickable() {
+        CompatTextView view = new CompatTextView(mContext);
+        view.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+            }
+        });
+        return view;
+    }
+
+    /**
+     * RippleDrawable没有公开涟漪颜色的getter
+     */
+    private static ColorStateList rippleColor(CompatTextView view) throws Exception {
+        assertTrue(view.getBackground() instanceof RippleDrawable);
+        Field stateField = RippleDrawable.class.getDeclaredField("mState");
+        stateField.setAccessible(true);
+        Object state = stateField.get(view.getBackground());
+        Field colorField = state.getClass().getDeclaredField("mColor");
+        colorField.setAccessible(true);
+        return (ColorStateList) colorField.get(state);
+    }
+}
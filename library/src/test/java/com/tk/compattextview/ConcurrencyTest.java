@@ -0,0 +1,144 @@
+package com.tk.compattextview;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.util.AttributeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 构造函数和PreparedSpec在后台线程并发执行 : Spec去重后为同一个实例 ,
+ *              背景从缓存共享 , 图集只在主线程写入
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class ConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int VIEWS_PER_THREAD = 50;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = TestViews.context();
+        CompatTextView.trimMemory(android.content.ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+
+    @Test
+    public void inflateOffMainThread() throws Exception {
+        List<CompatTextView> views = runConcurrently(new Callable<List<CompatTextView>>() {
+            @Override
+            public List<CompatTextView> call() {
+                AttributeSet attrs = Robolectric.buildAttributeSet()
+                        .addAttribute(R.attr.ctv_solidColor, "#ff0000")
+                        .addAttribute(R.attr.ctv_solidPressedColor, "#00ff00")
+                        .addAttribute(R.attr.ctv_radius, "4dp")
+                        .build();
+                List<CompatTextView> views = new ArrayList<>();
+                for (int i = 0; i < VIEWS_PER_THREAD; i++) {
+                    views.add(new CompatTextView(mContext, attrs));
+                }
+                return views;
+            }
+        });
+        assertEquals(THREADS * VIEWS_PER_THREAD, views.size());
+        CompatTextViewSpec spec = views.get(0).getSpec();
+        for (CompatTextView view : views) {
+            assertSame(spec, view.getSpec());
+            assertNotNull(view.getBackground());
+            //ConstantState来自同一个缓存项
+            assertSame(views.get(0).getBackground().getConstantState(), view.getBackground().getConstantState());
+        }
+    }
+
+    @Test
+    public void prepareOffMainThread() throws Exception {
+        final CompatTextViewSpec spec = new CompatTextViewSpec.Builder()
+                .setTintDrawable(CompatTextViewSpec.LEFT, android.R.drawable.ic_delete, 24, 24)
+                .setTint(CompatTextViewSpec.LEFT, Color.RED)
+                .setRasterizeDrawables(true)
+                .setSolidColor(CompatTextViewSpec.STATE_DEFAULT, Color.WHITE)
+                .build();
+        List<PreparedSpec> prepared = runConcurrently(new Callable<List<PreparedSpec>>() {
+            @Override
+            public List<PreparedSpec> call() {
+                List<PreparedSpec> list = new ArrayList<>();
+                for (int i = 0; i < VIEWS_PER_THREAD; i++) {
+                    list.add(PreparedSpec.prepare(mContext, spec));
+                }
+                return list;
+            }
+        });
+        //后台线程不写入图集
+        assertEquals(0, RasterAtlas.size());
+        for (PreparedSpec item : prepared) {
+            assertNotNull(item.compoundDrawables[CompatTextViewSpec.LEFT]);
+            assertSame(prepared.get(0).stateListBackground.getConstantState(),
+                    item.stateListBackground.getConstantState());
+        }
+
+        //主线程栅格化后 , 后台线程直接命中
+        CompatTextView view = new CompatTextView(mContext);
+        view.applySpec(spec);
+        assertEquals(1, RasterAtlas.size());
+        runConcurrently(new Callable<List<PreparedSpec>>() {
+            @Override
+            public List<PreparedSpec> call() {
+                List<PreparedSpec> list = new ArrayList<>();
+                list.add(PreparedSpec.prepare(mContext, spec));
+                return list;
+            }
+        });
+        assertEquals(1, RasterAtlas.size());
+    }
+
+    /**
+     * 所有线程同时开始 , 合并结果
+     */
+    private static <T> List<T> runConcurrently(final Callable<List<T>> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<T>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(new Callable<List<T>>() {
+                @Override
+                public List<T> call() throws Exception {
+                    start.await();
+                    return task.call();
+                }
+            }));
+        }
+        start.countDown();
+        List<T> result = new ArrayList<>();
+        try {
+            for (Future<List<T>> future : futures) {
+                result.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,156 @@
+package com.tk.compattextview;
+
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.util.AttributeSet;
+import android.view.Gravity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 左右Drawable的对齐 : 尺寸和文本不变时重新布局不改变bounds , 行数变化时重新对齐 ,
+ *              bind只切换对齐方式时直接重新偏移 , 不创建Drawable和数组
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class DrawableAlignTest {
+    private static final int WIDTH = 300;
+    /**
+     * 反复切换对齐方式允许的分配 , 只用于发现每次bind都分配数组或Drawable的回归
+     */
+    private static final long ALLOCATION_BUDGET = 1024;
+
+    private CompatTextView mView;
+    private CountingDrawable mLeft;
+    private CountingDrawable mRight;
+    private TestViews.CountingMetrics mMetrics;
+
+    @Before
+    public void setUp() {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.ctv_drawableLeftAlign, "top")
+                .addAttribute(R.attr.ctv_drawableRightAlign, "bottom")
+                .build();
+        mView = new CompatTextView(TestViews.context(), attrs);
+        mLeft = new CountingDrawable();
+        mRight = new CountingDrawable();
+        mView.setCompoundDrawables(mLeft, null, mRight, null);
+        mView.setText("first line\nsecond line\nthird line");
+        TestViews.layout(mView, WIDTH);
+        mMetrics = new TestViews.CountingMetrics();
+        CompatTextView.setMetrics(mMetrics);
+    }
+
+    @After
+    public void tearDown() {
+        CompatTextView.setMetrics(null);
+    }
+
+    @Test
+    public void alignment() {
+        CompatTextViewSpec edges = mView.edit()
+                .setDrawableAlign(CompatTextViewSpec.LEFT, CompatTextViewSpec.ALIGN_START)
+                .setDrawableAlign(CompatTextViewSpec.RIGHT, CompatTextViewSpec.ALIGN_END)
+                .build();
+        CompatTextViewSpec center = mView.edit()
+                .setDrawableAlign(CompatTextViewSpec.LEFT, CompatTextViewSpec.ALIGN_CENTER)
+                .setDrawableAlign(CompatTextViewSpec.RIGHT, CompatTextViewSpec.ALIGN_CENTER)
+                .build();
+        mView.bind(edges);
+        Rect left = mLeft.copyBounds();
+        Rect right = mRight.copyBounds();
+        mView.bind(center);
+        assertEquals(mLeft.getBounds().top, mRight.getBounds().top);
+        mView.bind(edges);
+        assertEquals(left, mLeft.getBounds());
+        assertEquals(right, mRight.getBounds());
+
+        int leftChanges = mLeft.boundsChanges;
+        int created = mMetrics.created[CompatTextView.Metrics.DRAWABLE_COMPOUND];
+        long bytes = TestViews.allocatedBytes();
+        for (int i = 0; i < 100; i++) {
+            mView.bind(center);
+            mView.bind(edges);
+        }
+        long allocated = TestViews.allocatedBytes() - bytes;
+        //每次bind只偏移一次 , 不重新创建Drawable
+        assertEquals(leftChanges + 200, mLeft.boundsChanges);
+        assertEquals(created, mMetrics.created[CompatTextView.Metrics.DRAWABLE_COMPOUND]);
+        if (bytes >= 0) {
+            assertTrue(allocated + " bytes", allocated <= ALLOCATION_BUDGET);
+        }
+        assertEquals(left, mLeft.getBounds());
+        assertEquals(right, mRight.getBounds());
+    }
+
+    @Test
+    public void defaultCenter() {
+        mView.bind(mView.edit()
+                .setDrawableAlign(CompatTextViewSpec.LEFT, CompatTextViewSpec.ALIGN_CENTER)
+                .setDrawableAlign(CompatTextViewSpec.RIGHT, CompatTextViewSpec.ALIGN_CENTER)
+                .build());
+        //与TextView默认位置一致 , 不偏移
+        assertEquals(0, mLeft.getBounds().top);
+        assertEquals(0, mRight.getBounds().top);
+        mView.setGravity(Gravity.TOP);
+        TestViews.layout(mView, WIDTH);
+        assertEquals(0, mLeft.getBounds().top);
+    }
+
+    @Test
+    public void relayout() {
+        Rect left = mLeft.copyBounds();
+        Rect right = mRight.copyBounds();
+        int leftChanges = mLeft.boundsChanges;
+        int rightChanges = mRight.boundsChanges;
+        for (int i = 0; i < 10; i++) {
+            mView.requestLayout();
+            TestViews.layout(mView, WIDTH);
+        }
+        //对齐结果不变时不再调用setBounds
+        assertEquals(leftChanges, mLeft.boundsChanges);
+        assertEquals(rightChanges, mRight.boundsChanges);
+        assertEquals(left, mLeft.getBounds());
+        assertEquals(right, mRight.getBounds());
+    }
+
+    @Test
+    public void lineCountChanged() {
+        mView.setText("single line");
+        TestViews.layout(mView, WIDTH);
+        //只有一行时首行与末行相同
+        assertEquals(mLeft.getBounds().top, mRight.getBounds().top);
+    }
+
+    /**
+     * 统计bounds的修改次数
+     */
+    private static final class CountingDrawable extends ColorDrawable {
+        int boundsChanges;
+
+        CountingDrawable() {
+            super(Color.RED);
+            setBounds(0, 0, 10, 10);
+        }
+
+        @Override
+        protected void onBoundsChange(Rect bounds) {
+            super.onBoundsChange(bounds);
+            boundsChanges++;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.tk.compattextview;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : configChanges="uiMode"时 , 配置的Drawable按新的uiMode重新加载 , 角标文字颜色同样记录引用的资源
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class NightModeTest {
+    private Context mContext;
+    private Configuration mDay;
+
+    @Before
+    public void setUp() {
+        mContext = TestViews.context();
+        mDay = new Configuration(mContext.getResources().getConfiguration());
+        CompatTextView.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+
+    @After
+    public void tearDown() {
+        Resources res = mContext.getResources();
+        res.updateConfiguration(mDay, res.getDisplayMetrics());
+    }
+
+    @Test
+    public void reloadDrawables() {
+        CompatTextView view = new CompatTextView(mContext);
+        view.edit()
+                .setTintDrawable(CompatTextViewSpec.LEFT, android.R.drawable.ic_delete, 24, 24)
+                .setTint(CompatTextViewSpec.LEFT, Color.RED)
+                .commit();
+        Drawable day = view.getCompoundDrawables()[CompatTextViewSpec.LEFT];
+
+        Configuration night = new Configuration(mDay);
+        night.uiMode = Configuration.UI_MODE_NIGHT_YES | (mDay.uiMode & ~Configuration.UI_MODE_NIGHT_MASK);
+        Resources res = mContext.getResources();
+        res.updateConfiguration(night, res.getDisplayMetrics());
+        view.onConfigurationChanged(night);
+        Drawable reloaded = view.getCompoundDrawables()[CompatTextViewSpec.LEFT];
+        //按夜间的uiMode从TintUtils重新加载
+        assertNotSame(day, reloaded);
+        assertSame(TintUtils.getTintDrawable(mContext, android.R.drawable.ic_delete, Color.RED, 24, 24)
+                .getConstantState(), reloaded.getConstantState());
+
+        //uiMode不变时不再加载
+        view.onConfigurationChanged(night);
+        assertSame(reloaded, view.getCompoundDrawables()[CompatTextViewSpec.LEFT]);
+    }
+
+    @Test
+    public void badgeTextColorResource() {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.ctv_badgeTextColor, "@android:color/black")
+                .build();
+        CompatTextView view = new CompatTextView(mContext, attrs);
+        CompatTextViewSpec spec = view.getSpec();
+        assertEquals(android.R.color.black, spec.colorResources[CompatTextViewSpec.BADGE_TEXT_COLOR]);
+        assertEquals(Color.BLACK, spec.badgeTextColor());
+    }
+}
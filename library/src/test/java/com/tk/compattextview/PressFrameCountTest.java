@@ -0,0 +1,58 @@
+package com.tk.compattextview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 按下到松开后动画结束期间统计重新绘制的帧数
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class PressFrameCountTest {
+
+    @Test
+    public void countUntilSettled() {
+        CompatTextView view = new CompatTextView(TestViews.context());
+        view.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+            }
+        });
+        view.bind(new CompatTextViewSpec.Builder()
+                .setSolidColor(CompatTextViewSpec.STATE_DEFAULT, Color.WHITE)
+                .setSolidColor(CompatTextViewSpec.STATE_PRESSED, Color.GRAY)
+                .setFadeDuring(200)
+                .build());
+        TestViews.layout(view, 200);
+        Canvas canvas = new Canvas(Bitmap.createBitmap(200, Math.max(1, view.getHeight()), Bitmap.Config.ARGB_8888));
+        view.draw(canvas);
+        assertEquals(0, view.getPressFrameCount());
+
+        view.setPressed(true);
+        view.draw(canvas);
+        view.draw(canvas);
+        assertEquals(2, view.getPressFrameCount());
+        view.setPressed(false);
+        //松开后的渐变动画仍在计数
+        view.draw(canvas);
+        assertEquals(3, view.getPressFrameCount());
+
+        Robolectric.flushForegroundThreadScheduler();
+        view.draw(canvas);
+        assertEquals(3, view.getPressFrameCount());
+    }
+}
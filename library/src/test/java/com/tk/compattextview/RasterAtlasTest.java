@@ -0,0 +1,76 @@
+package com.tk.compattextview;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.drawable.Drawable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 图集按uiMode区分 , 满了之后不再清空已有的页 , 新的图标使用着色的Drawable
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class RasterAtlasTest {
+    /**
+     * 与图集的页同样大小 , 每个图标占满一页
+     */
+    private static final int PAGE_SIZE = 512;
+    private static final int MAX_PAGES = 4;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = TestViews.context();
+        CompatTextView.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+
+    @Test
+    public void uiMode() {
+        RasterAtlas.obtain(mContext, android.R.drawable.ic_delete, 0xffff0000, 24, 24);
+        RasterAtlas.obtain(mContext, android.R.drawable.ic_delete, 0xffff0000, 24, 24);
+        assertEquals(1, RasterAtlas.size());
+
+        Configuration configuration = new Configuration(mContext.getResources().getConfiguration());
+        configuration.uiMode = Configuration.UI_MODE_NIGHT_YES
+                | (configuration.uiMode & ~Configuration.UI_MODE_NIGHT_MASK);
+        Context night = mContext.createConfigurationContext(configuration);
+        RasterAtlas.obtain(night, android.R.drawable.ic_delete, 0xffff0000, 24, 24);
+        //drawable-night中可能是另一个文件 , 单独栅格化
+        assertEquals(2, RasterAtlas.size());
+    }
+
+    @Test
+    public void full() {
+        for (int i = 0; i < MAX_PAGES; i++) {
+            RasterAtlas.obtain(mContext, android.R.drawable.ic_delete, 0xff000000 | i, PAGE_SIZE, PAGE_SIZE);
+        }
+        assertEquals(MAX_PAGES, RasterAtlas.size());
+
+        Drawable overflow = RasterAtlas.obtain(mContext, android.R.drawable.ic_delete,
+                0xff000000 | MAX_PAGES, PAGE_SIZE, PAGE_SIZE);
+        //已有的页仍在使用 , 不清空 , 直接返回着色的Drawable
+        assertEquals(MAX_PAGES, RasterAtlas.size());
+        assertSame(TintUtils.getTintDrawable(mContext, android.R.drawable.ic_delete,
+                0xff000000 | MAX_PAGES, PAGE_SIZE, PAGE_SIZE).getConstantState(), overflow.getConstantState());
+
+        //已经栅格化的图标仍然命中 , AtlasDrawable没有ConstantState
+        assertNull(RasterAtlas.obtain(mContext, android.R.drawable.ic_delete,
+                0xff000000, PAGE_SIZE, PAGE_SIZE).getConstantState());
+        assertEquals(MAX_PAGES, RasterAtlas.size());
+    }
+}
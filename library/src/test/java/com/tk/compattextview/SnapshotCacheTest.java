@@ -0,0 +1,87 @@
+package com.tk.compattextview;
+
+import android.graphics.Bitmap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 快照位图按字节统计 , 超出上限时不分配 , 释放后按尺寸复用
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SnapshotCacheTest {
+    private static final int MAX_SIZE = 100 * 100 * 4 * 4;
+
+    @Before
+    public void setUp() {
+        SnapshotCache.clear();
+        SnapshotCache.resize(MAX_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        SnapshotCache.clear();
+        SnapshotCache.resize(SnapshotCache.DEFAULT_MAX_SIZE);
+    }
+
+    @Test
+    public void budget() {
+        Bitmap[] bitmaps = new Bitmap[4];
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = SnapshotCache.obtain(100, 100);
+            assertNotNull(bitmaps[i]);
+        }
+        assertEquals(MAX_SIZE, SnapshotCache.size());
+        assertNull(SnapshotCache.obtain(100, 100));
+        //超过上限的1/4
+        assertNull(SnapshotCache.obtain(101, 100));
+
+        for (Bitmap bitmap : bitmaps) {
+            SnapshotCache.release(bitmap);
+        }
+        assertEquals(MAX_SIZE, SnapshotCache.size());
+    }
+
+    @Test
+    public void reuseBySize() {
+        Bitmap bitmap = SnapshotCache.obtain(100, 50);
+        SnapshotCache.release(bitmap);
+        assertSame(bitmap, SnapshotCache.obtain(100, 50));
+
+        SnapshotCache.release(bitmap);
+        Bitmap other = SnapshotCache.obtain(50, 100);
+        assertNotNull(other);
+        assertEquals(50, other.getWidth());
+        assertEquals(2 * 100 * 50 * 4, SnapshotCache.size());
+    }
+
+    @Test
+    public void poolYieldsToViews() {
+        Bitmap[] bitmaps = new Bitmap[4];
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = SnapshotCache.obtain(100, 100);
+        }
+        for (Bitmap bitmap : bitmaps) {
+            SnapshotCache.release(bitmap);
+        }
+        //复用池已满 , 其他尺寸淘汰池中的位图
+        int evicted = SnapshotCache.evictionCount();
+        assertNotNull(SnapshotCache.obtain(100, 99));
+        assertEquals(evicted + 1, SnapshotCache.evictionCount());
+        assertEquals(MAX_SIZE - 100 * 100 * 4 + 100 * 99 * 4, SnapshotCache.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.tk.compattextview;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import org.robolectric.RuntimeEnvironment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : Robolectric测试共用的Context、布局和分配统计
+ * </pre>
+ */
+final class TestViews {
+    private TestViews() {
+        throw new IllegalStateException();
+    }
+
+    static Context context() {
+        return new ContextThemeWrapper(RuntimeEnvironment.application,
+                android.support.v7.appcompat.R.style.Theme_AppCompat_Light);
+    }
+
+    /**
+     * 按固定宽度测量并布局
+     *
+     * @param view
+     * @param width
+     */
+    static void layout(View view, int width) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    /**
+     * 当前线程累计分配的字节数 , JVM不支持时返回-1
+     *
+     * @return
+     */
+    static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 统计创建的Drawable
+     */
+    static final class CountingMetrics extends CompatTextView.Metrics {
+        final int[] created = new int[3];
+        int rebuilt;
+
+        @Override
+        public void onDrawableCreated(int type) {
+            created[type]++;
+        }
+
+        @Override
+        public void onProcessBackground(CompatTextView view, long nanos, boolean rebuilt) {
+            if (rebuilt) {
+                this.rebuilt++;
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.tk.compattextview;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 着色Drawable按uiMode区分缓存 , 在View上重新着色不影响缓存 , trim时同时释放背景缓存
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class TintUtilsTest {
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = TestViews.context();
+        CompatTextView.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+
+    @Test
+    public void uiMode() {
+        Drawable day = TintUtils.getTintDrawable(mContext, android.R.drawable.ic_delete, Color.RED, -1, -1);
+        Drawable sameDay = TintUtils.getTintDrawable(mContext, android.R.drawable.ic_delete, Color.RED, -1, -1);
+        assertSame(day.getConstantState(), sameDay.getConstantState());
+
+        Configuration configuration = new Configuration(mContext.getResources().getConfiguration());
+        configuration.uiMode = Configuration.UI_MODE_NIGHT_YES
+                | (configuration.uiMode & ~Configuration.UI_MODE_NIGHT_MASK);
+        Context night = mContext.createConfigurationContext(configuration);
+        Drawable nightDrawable = TintUtils.getTintDrawable(night, android.R.drawable.ic_delete, Color.RED, -1, -1);
+        //drawable-night中可能是另一个文件 , 不能复用白天的ConstantState
+        assertNotSame(day.getConstantState(), nightDrawable.getConstantState());
+        assertEquals(2, TintUtils.size());
+    }
+
+    @Test
+    public void retint() {
+        CompatTextView view = new CompatTextView(mContext);
+        view.edit()
+                .setTintDrawable(CompatTextViewSpec.LEFT, android.R.drawable.ic_delete, 24, 24)
+                .setTint(CompatTextViewSpec.LEFT, Color.RED)
+                .commit();
+        Drawable drawable = view.getCompoundDrawables()[CompatTextViewSpec.LEFT];
+        view.bind(view.edit()
+                .setTint(CompatTextViewSpec.LEFT, Color.BLUE)
+                .build());
+        //只修改颜色时在原实例上重新着色
+        assertSame(drawable, view.getCompoundDrawables()[CompatTextViewSpec.LEFT]);
+
+        CompatTextView other = new CompatTextView(mContext);
+        other.edit()
+                .setTintDrawable(CompatTextViewSpec.LEFT, android.R.drawable.ic_delete, 24, 24)
+                .setTint(CompatTextViewSpec.LEFT, Color.RED)
+                .commit();
+        Drawable red = other.getCompoundDrawables()[CompatTextViewSpec.LEFT];
+        //蓝色的实例已经分离 , 之后取到的红色仍然共享缓存中的ConstantState
+        assertNotSame(drawable.getConstantState(), red.getConstantState());
+        assertSame(red.getConstantState(), TintUtils.getTintDrawable(mContext,
+                android.R.drawable.ic_delete, Color.RED, 24, 24).getConstantState());
+    }
+
+    @Test
+    public void trimBackgrounds() {
+        CompatTextView view = new CompatTextView(mContext);
+        view.edit()
+                .setSolidColor(CompatTextViewSpec.STATE_DEFAULT, Color.WHITE)
+                .commit();
+        assertEquals(1, BackgroundCache.size());
+
+        //只释放Tint Drawable的缓存
+        TintUtils.trim(ComponentCallbacks2.TRIM_MEMORY_MODERATE);
+        assertEquals(1, BackgroundCache.size());
+
+        CompatTextView.trimMemory(ComponentCallbacks2.TRIM_MEMORY_MODERATE);
+        assertEquals(0, BackgroundCache.size());
+    }
+}
@@ -0,0 +1,156 @@
+package com.tk.compattextview;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.support.v7.widget.AppCompatTextView;
+import android.util.AttributeSet;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 列表中可能同时存在上百个CompatTextView , 每个View相对AppCompatTextView多出的内存有上限 ,
+ *              按下、角标和快照只在用到时才创建
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class ViewFootprintTest {
+    /**
+     * CompatTextView自身声明的实例字段 , 按压缩指针估算 , 新增字段前先考虑能否放入按需创建的holder
+     */
+    private static final int FIELDS_BUDGET = 68;
+    /**
+     * 每个View布局后比AppCompatTextView多保留的字节数 , 背景共享ConstantState , 只有各自的Drawable实例
+     */
+    private static final long RETAINED_BUDGET = 1024;
+    private static final int COUNT = 10000;
+
+    @Test
+    public void declaredFields() {
+        int size = 0;
+        StringBuilder fields = new StringBuilder();
+        for (Field field : CompatTextView.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            size += sizeOf(field.getType());
+            fields.append(field.getName()).append(' ');
+        }
+        assertTrue(size + " bytes : " + fields, size <= FIELDS_BUDGET);
+    }
+
+    @Test
+    public void holdersCreatedOnDemand() throws Exception {
+        CompatTextView view = new CompatTextView(TestViews.context());
+        view.edit()
+                .setSolidColor(CompatTextViewSpec.STATE_DEFAULT, Color.WHITE)
+                .commit();
+        view.setText("Tag");
+        TestViews.layout(view, 200);
+        assertNull(field(view, "mPress"));
+        assertNull(field(view, "mBadge"));
+        assertNull(field(view, "mSnapshot"));
+
+        view.showBadgeDot();
+        assertNotNull(field(view, "mBadge"));
+        view.setPressed(true);
+        assertNotNull(field(view, "mPress"));
+        view.setPressed(false);
+    }
+
+    @Test
+    public void retainedPerView() {
+        final Context context = TestViews.context();
+        final AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.ctv_solidColor, "#ffffff")
+                .addAttribute(R.attr.ctv_solidPressedColor, "#888888")
+                .addAttribute(R.attr.ctv_strokeWidth, "1dp")
+                .addAttribute(R.attr.ctv_strokeColor, "#cccccc")
+                .addAttribute(R.attr.ctv_radius, "4dp")
+                .build();
+        //预热 : 类加载、Spec和样式缓存
+        layout(new AppCompatTextView(context, attrs));
+        layout(new CompatTextView(context, attrs));
+
+        long base = retained(context, attrs, false);
+        long compat = retained(context, attrs, true);
+        long perView = (compat - base) / COUNT;
+        assertTrue(perView + " bytes per view", perView <= RETAINED_BUDGET);
+    }
+
+    /**
+     * 同时持有{@link #COUNT}个布局后的View , GC后已用堆内存的增量
+     */
+    private static long retained(Context context, AttributeSet attrs, boolean compat) {
+        List<View> views = new ArrayList<>(COUNT);
+        long start = usedHeap();
+        for (int i = 0; i < COUNT; i++) {
+            View view = compat ? new CompatTextView(context, attrs) : new AppCompatTextView(context, attrs);
+            layout(view);
+            views.add(view);
+        }
+        long retained = usedHeap() - start;
+        //测量结束前保持引用
+        assertEquals(COUNT, views.size());
+        return retained;
+    }
+
+    /**
+     * 多次GC直到已用内存不再下降
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            System.runFinalization();
+            long current = runtime.totalMemory() - runtime.freeMemory();
+            if (current >= used) {
+                break;
+            }
+            used = current;
+        }
+        return used;
+    }
+
+    private static void layout(View view) {
+        TestViews.layout(view, 200);
+    }
+
+    private static Object field(CompatTextView view, String name) throws Exception {
+        Field field = CompatTextView.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(view);
+    }
+
+    private static int sizeOf(Class<?> type) {
+        if (long.class == type || double.class == type) {
+            return 8;
+        }
+        if (boolean.class == type || byte.class == type) {
+            return 1;
+        }
+        if (short.class == type || char.class == type) {
+            return 2;
+        }
+        return 4;
+    }
+}
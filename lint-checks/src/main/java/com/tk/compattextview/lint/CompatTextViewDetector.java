@@ -0,0 +1,372 @@
+package com.tk.compattextview.lint;
+
+import com.android.resources.ResourceFolderType;
+import com.android.tools.lint.detector.api.Category;
+import com.android.tools.lint.detector.api.Context;
+import com.android.tools.lint.detector.api.Implementation;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.LintFix;
+import com.android.tools.lint.detector.api.Location;
+import com.android.tools.lint.detector.api.ResourceXmlDetector;
+import com.android.tools.lint.detector.api.Scope;
+import com.android.tools.lint.detector.api.Severity;
+import com.android.tools.lint.detector.api.XmlContext;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.android.SdkConstants.ANDROID_URI;
+import static com.android.SdkConstants.AUTO_URI;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 检查布局中CompatTextView多余或代价较高的ctv_*配置 ,
+ *              这些配置不会改变显示效果 , 但会在processBackgroundDrawable()和initTintDrawable()中多分配Drawable
+ * </pre>
+ */
+public class CompatTextViewDetector extends ResourceXmlDetector {
+    static final String VIEW = "com.tk.compattextview.CompatTextView";
+    private static final String VECTOR = "vector";
+    private static final String ITEM = "item";
+    private static final String THEME_STYLE = "compatTextViewStyle";
+
+    private static final String[] STATES = {"Pressed", "Selected", "Disabled"};
+    private static final String[] ALL_STATES = {"", "Pressed", "Selected", "Disabled"};
+    private static final String[] SIDES = {"Left", "Top", "Right", "Bottom"};
+    private static final String DRAWABLE_PREFIX = "@drawable/";
+
+    private static final Implementation IMPLEMENTATION = new Implementation(
+            CompatTextViewDetector.class, Scope.RESOURCE_FILE_SCOPE);
+    /**
+     * 需要同时读取drawable目录 , 只在完整检查时执行
+     */
+    private static final Implementation ALL_RESOURCES_IMPLEMENTATION = new Implementation(
+            CompatTextViewDetector.class, Scope.ALL_RESOURCES_SCOPE);
+
+    public static final Issue REDUNDANT_ATTRIBUTE = Issue.create(
+            "CompatTextViewRedundantAttribute",
+            "CompatTextView attribute never changes the appearance",
+            "A state color identical to the default state, or a stroke color without "
+                    + "`ctv_strokeWidth`, is parsed and kept in the background for every view "
+                    + "but never changes what is drawn. A pressed color identical to the default "
+                    + "color also makes CompatTextView build a RippleDrawable on 5.0+.",
+            Category.PERFORMANCE, 4, Severity.WARNING, IMPLEMENTATION);
+
+    public static final Issue UNIFORM_GRADIENT = Issue.create(
+            "CompatTextViewUniformGradient",
+            "CompatTextView gradient with identical colors",
+            "A gradient whose start, center and end colors are identical draws a single color, "
+                    + "but still creates a LinearGradient shader for every size of the view. "
+                    + "Use the `ctv_solid*Color` attribute of the same state instead.",
+            Category.PERFORMANCE, 4, Severity.WARNING, IMPLEMENTATION);
+
+    public static final Issue RIPPLE_NOT_CLICKABLE = Issue.create(
+            "CompatTextViewRippleNotClickable",
+            "CompatTextView ripple on a view that is never clickable",
+            "The view has a pressed background and `ctv_ripple` is enabled (the default), but it is "
+                    + "not clickable and has no `android:id` to make it clickable from code, "
+                    + "so the ripple can never be shown. Set `ctv_ripple=\"false\"`; the pressed color "
+                    + "is still applied when a clickable parent dispatches its pressed state.",
+            Category.PERFORMANCE, 3, Severity.WARNING, IMPLEMENTATION);
+
+    public static final Issue INTRINSIC_SIZE = Issue.create(
+            "CompatTextViewIntrinsicSize",
+            "CompatTextView tint drawable size equals the intrinsic size",
+            "`ctv_tintDrawable*Width` and `ctv_tintDrawable*Height` equal to the vector drawable's "
+                    + "`android:width` and `android:height` are redundant, CompatTextView uses the "
+                    + "intrinsic size when they are not set.",
+            Category.PERFORMANCE, 2, Severity.WARNING, ALL_RESOURCES_IMPLEMENTATION);
+
+    /**
+     * vector drawable name -> {width , height}
+     */
+    private final Map<String, String[]> mVectorSizes = new HashMap<>();
+    private final List<SizeUsage> mSizeUsages = new ArrayList<>();
+    /**
+     * 边框宽度可能来自主题的compatTextViewStyle , 读取values后再报告
+     */
+    private final List<StrokeUsage> mStrokeUsages = new ArrayList<>();
+    private boolean mThemeStyle;
+
+    @Override
+    public boolean appliesTo(ResourceFolderType folderType) {
+        return folderType == ResourceFolderType.LAYOUT || folderType == ResourceFolderType.DRAWABLE
+                || folderType == ResourceFolderType.VALUES;
+    }
+
+    @Override
+    public Collection<String> getApplicableElements() {
+        return Arrays.asList(VIEW, VECTOR, ITEM);
+    }
+
+    @Override
+    public void visitElement(XmlContext context, Element element) {
+        if (ITEM.equals(element.getTagName())) {
+            String name = element.getAttribute("name");
+            if (context.getResourceFolderType() == ResourceFolderType.VALUES
+                    && (THEME_STYLE.equals(name) || name.endsWith(":" + THEME_STYLE))) {
+                mThemeStyle = true;
+            }
+            return;
+        }
+        if (VECTOR.equals(element.getTagName())) {
+            if (context.getResourceFolderType() == ResourceFolderType.DRAWABLE
+                    && element == element.getOwnerDocument().getDocumentElement()) {
+                String name = context.file.getName();
+                name = name.substring(0, name.indexOf('.'));
+                mVectorSizes.put(name, new String[]{element.getAttributeNS(ANDROID_URI, "width"),
+                        element.getAttributeNS(ANDROID_URI, "height")});
+            }
+            return;
+        }
+        Map<String, Attr> attrs = getCtvAttributes(element);
+        if (attrs.isEmpty()) {
+            return;
+        }
+        checkRedundantStates(context, attrs);
+        checkStroke(context, element, attrs);
+        checkGradients(context, attrs);
+        checkRipple(context, element, attrs);
+        collectSizes(context, element, attrs);
+    }
+
+    @Override
+    public void afterCheckProject(Context context) {
+        //主题配置了默认样式时 , 无法确定边框宽度
+        if (!mThemeStyle) {
+            for (StrokeUsage usage : mStrokeUsages) {
+                if (context.getDriver().isSuppressed(null, REDUNDANT_ATTRIBUTE, usage.element)) {
+                    continue;
+                }
+                context.report(REDUNDANT_ATTRIBUTE, usage.handle.resolve(),
+                        usage.name + " is never drawn without ctv_strokeWidth", unset(usage.name));
+            }
+        }
+        for (SizeUsage usage : mSizeUsages) {
+            String[] size = mVectorSizes.get(usage.drawable);
+            if (null == size) {
+                continue;
+            }
+            for (int i = 0; i < 2; i++) {
+                if (null == usage.handles[i] || !size[i].equals(usage.values[i])) {
+                    continue;
+                }
+                if (context.getDriver().isSuppressed(null, INTRINSIC_SIZE, usage.element)) {
+                    continue;
+                }
+                String dimension = i == 0 ? "width" : "height";
+                context.report(INTRINSIC_SIZE, usage.handles[i].resolve(),
+                        usage.names[i] + " is the intrinsic " + dimension + " of @drawable/" + usage.drawable,
+                        unset(usage.names[i]));
+            }
+        }
+    }
+
+    /**
+     * 与默认状态相同的颜色
+     */
+    private void checkRedundantStates(XmlContext context, Map<String, Attr> attrs) {
+        for (String prefix : new String[]{"ctv_solid", "ctv_stroke", "ctv_text", "ctv_badge"}) {
+            Attr normal = attrs.get(prefix + "Color");
+            if (null == normal) {
+                continue;
+            }
+            for (String state : STATES) {
+                String name = prefix + state + "Color";
+                Attr attr = attrs.get(name);
+                if (null == attr || !attr.getValue().trim().equals(normal.getValue().trim())) {
+                    continue;
+                }
+                //该状态有渐变时solid颜色只作为渐变插值的另一端
+                if ("ctv_solid".equals(prefix) && hasGradient(attrs, state)) {
+                    continue;
+                }
+                context.report(REDUNDANT_ATTRIBUTE, attr, context.getLocation(attr),
+                        name + " is the same as " + prefix + "Color and never changes the appearance",
+                        unset(name));
+            }
+        }
+    }
+
+    /**
+     * 没有边框宽度时的边框颜色 , 宽度可能来自style或主题 , 此时不检查
+     */
+    private void checkStroke(XmlContext context, Element element, Map<String, Attr> attrs) {
+        Attr width = attrs.get("ctv_strokeWidth");
+        if (null != width) {
+            //布局中的宽度覆盖style和主题
+            if (!isZero(width.getValue())) {
+                return;
+            }
+        } else if (hasStyle(element)) {
+            return;
+        }
+        for (String state : ALL_STATES) {
+            String name = "ctv_stroke" + state + "Color";
+            Attr attr = attrs.get(name);
+            if (null != attr) {
+                mStrokeUsages.add(new StrokeUsage(name, element, context.createLocationHandle(attr)));
+            }
+        }
+    }
+
+    /**
+     * 起始、中间、结束颜色相同的渐变
+     */
+    private void checkGradients(XmlContext context, Map<String, Attr> attrs) {
+        for (String state : ALL_STATES) {
+            String startName = "ctv_gradientStart" + state + "Color";
+            String centerName = "ctv_gradientCenter" + state + "Color";
+            String endName = "ctv_gradientEnd" + state + "Color";
+            Attr start = attrs.get(startName);
+            Attr end = attrs.get(endName);
+            Attr center = attrs.get(centerName);
+            if (null == start || null == end) {
+                continue;
+            }
+            String color = start.getValue().trim();
+            if (!color.equals(end.getValue().trim())
+                    || (null != center && !color.equals(center.getValue().trim()))) {
+                continue;
+            }
+            String solidName = "ctv_solid" + state + "Color";
+            List<LintFix> fixes = new ArrayList<>();
+            fixes.add(LintFix.create().set(AUTO_URI, solidName, color).build());
+            fixes.add(unset(startName));
+            fixes.add(unset(endName));
+            if (null != center) {
+                fixes.add(unset(centerName));
+            }
+            String directionName = "ctv_gradientDirection" + state;
+            if (attrs.containsKey(directionName)) {
+                fixes.add(unset(directionName));
+            }
+            LintFix fix = LintFix.create()
+                    .name("Replace with " + solidName)
+                    .composite(fixes.toArray(new LintFix[fixes.size()]));
+            context.report(UNIFORM_GRADIENT, start, context.getLocation(start),
+                    "Gradient colors are identical, use " + solidName + " instead", fix);
+        }
+    }
+
+    /**
+     * 无法点击的View上的涟漪
+     */
+    private void checkRipple(XmlContext context, Element element, Map<String, Attr> attrs) {
+        Attr ripple = attrs.get("ctv_ripple");
+        if (null != ripple && "false".equals(ripple.getValue().trim())) {
+            return;
+        }
+        if (!attrs.containsKey("ctv_solidPressedColor")
+                || (!attrs.containsKey("ctv_solidColor") && !hasGradient(attrs, ""))) {
+            return;
+        }
+        //style中可能配置了android:clickable或ctv_ripple
+        if (hasStyle(element)
+                || element.hasAttributeNS(ANDROID_URI, "id")
+                || "true".equals(element.getAttributeNS(ANDROID_URI, "clickable"))
+                || "true".equals(element.getAttributeNS(ANDROID_URI, "longClickable"))
+                || "true".equals(element.getAttributeNS(ANDROID_URI, "duplicateParentState"))
+                || element.hasAttributeNS(ANDROID_URI, "onClick")) {
+            return;
+        }
+        Attr pressed = attrs.get("ctv_solidPressedColor");
+        context.report(RIPPLE_NOT_CLICKABLE, element, context.getLocation(pressed),
+                "The pressed ripple is never shown on a view that is not clickable",
+                LintFix.create().name("Set ctv_ripple=\"false\"").set(AUTO_URI, "ctv_ripple", "false").build());
+    }
+
+    /**
+     * 记录配置了宽高的vector , 所有drawable读取后再比较
+     */
+    private void collectSizes(XmlContext context, Element element, Map<String, Attr> attrs) {
+        for (String side : SIDES) {
+            Attr drawable = attrs.get("ctv_tintDrawable" + side);
+            if (null == drawable || !drawable.getValue().startsWith(DRAWABLE_PREFIX)) {
+                continue;
+            }
+            String[] names = {"ctv_tintDrawable" + side + "Width", "ctv_tintDrawable" + side + "Height"};
+            SizeUsage usage = null;
+            for (int i = 0; i < 2; i++) {
+                Attr size = attrs.get(names[i]);
+                if (null == size) {
+                    continue;
+                }
+                if (null == usage) {
+                    usage = new SizeUsage(drawable.getValue().substring(DRAWABLE_PREFIX.length()), element, names);
+                    mSizeUsages.add(usage);
+                }
+                usage.values[i] = size.getValue().trim();
+                usage.handles[i] = context.createLocationHandle(size);
+            }
+        }
+    }
+
+    private static Map<String, Attr> getCtvAttributes(Element element) {
+        Map<String, Attr> attrs = new LinkedHashMap<>();
+        NamedNodeMap map = element.getAttributes();
+        for (int i = 0; i < map.getLength(); i++) {
+            Attr attr = (Attr) map.item(i);
+            String name = attr.getLocalName();
+            if (AUTO_URI.equals(attr.getNamespaceURI()) && null != name && name.startsWith("ctv_")) {
+                attrs.put(name, attr);
+            }
+        }
+        return attrs;
+    }
+
+    private static boolean hasStyle(Element element) {
+        return element.hasAttribute("style");
+    }
+
+    private static boolean hasGradient(Map<String, Attr> attrs, String state) {
+        return attrs.containsKey("ctv_gradientStart" + state + "Color")
+                || attrs.containsKey("ctv_gradientCenter" + state + "Color")
+                || attrs.containsKey("ctv_gradientEnd" + state + "Color");
+    }
+
+    private static boolean isZero(String value) {
+        return value.trim().matches("0+(\\.0+)?(dp|dip|px|sp|pt|in|mm)?");
+    }
+
+    private static LintFix unset(String name) {
+        return LintFix.create().name("Remove " + name).unset(AUTO_URI, name).build();
+    }
+
+    private static final class StrokeUsage {
+        final String name;
+        final Element element;
+        final Location.Handle handle;
+
+        StrokeUsage(String name, Element element, Location.Handle handle) {
+            this.name = name;
+            this.element = element;
+            this.handle = handle;
+        }
+    }
+
+    private static final class SizeUsage {
+        final String drawable;
+        final Element element;
+        final String[] names;
+        final String[] values = new String[2];
+        final Location.Handle[] handles = new Location.Handle[2];
+
+        SizeUsage(String drawable, Element element, String[] names) {
+            this.drawable = drawable;
+            this.element = element;
+            this.names = names;
+        }
+    }
+}
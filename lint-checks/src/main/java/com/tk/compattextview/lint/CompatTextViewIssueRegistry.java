@@ -0,0 +1,24 @@
+package com.tk.compattextview.lint;
+
+import com.android.tools.lint.client.api.IssueRegistry;
+import com.android.tools.lint.detector.api.Issue;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 通过jar的Lint-Registry-v2注册
+ * </pre>
+ */
+public class CompatTextViewIssueRegistry extends IssueRegistry {
+    @Override
+    public List<Issue> getIssues() {
+        return Arrays.asList(CompatTextViewDetector.REDUNDANT_ATTRIBUTE,
+                CompatTextViewDetector.UNIFORM_GRADIENT,
+                CompatTextViewDetector.RIPPLE_NOT_CLICKABLE,
+                CompatTextViewDetector.INTRINSIC_SIZE);
+    }
+}
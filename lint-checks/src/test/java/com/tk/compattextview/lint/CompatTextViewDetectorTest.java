@@ -0,0 +1,147 @@
+package com.tk.compattextview.lint;
+
+import com.android.tools.lint.checks.infrastructure.LintDetectorTest;
+import com.android.tools.lint.detector.api.Detector;
+import com.android.tools.lint.detector.api.Issue;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <pre>
+ *     author : TK
+ *     time   : 2026/10/18
+ *     desc   : 每个Issue的报告与不报告的情况 , 配置可能来自style或主题时不报告
+ * </pre>
+ */
+public class CompatTextViewDetectorTest extends LintDetectorTest {
+
+    @Override
+    protected Detector getDetector() {
+        return new CompatTextViewDetector();
+    }
+
+    @Override
+    protected List<Issue> getIssues() {
+        return Arrays.asList(CompatTextViewDetector.REDUNDANT_ATTRIBUTE,
+                CompatTextViewDetector.UNIFORM_GRADIENT,
+                CompatTextViewDetector.RIPPLE_NOT_CLICKABLE,
+                CompatTextViewDetector.INTRINSIC_SIZE);
+    }
+
+    public void testRedundantState() {
+        lint().files(layout(""
+                + "        app:ctv_solidColor=\"#FFF\"\n"
+                + "        app:ctv_solidSelectedColor=\"#FFF\"\n"
+                + "        app:ctv_textColor=\"#000\"\n"
+                + "        app:ctv_textPressedColor=\"#333\""))
+                .issues(CompatTextViewDetector.REDUNDANT_ATTRIBUTE)
+                .run()
+                .expectWarningCount(1);
+    }
+
+    public void testRedundantStroke() {
+        lint().files(layout(""
+                + "        app:ctv_strokeColor=\"#000\"\n"
+                + "        app:ctv_strokePressedColor=\"#333\""))
+                .issues(CompatTextViewDetector.REDUNDANT_ATTRIBUTE)
+                .run()
+                .expectWarningCount(2);
+    }
+
+    public void testStrokeWidthFromStyle() {
+        lint().files(layout(""
+                + "        style=\"@style/Outline\"\n"
+                + "        app:ctv_strokeColor=\"#000\""))
+                .issues(CompatTextViewDetector.REDUNDANT_ATTRIBUTE)
+                .run()
+                .expectClean();
+    }
+
+    public void testStrokeWidthFromTheme() {
+        lint().files(layout("        app:ctv_strokeColor=\"#000\""),
+                xml("res/values/styles.xml", ""
+                        + "<resources>\n"
+                        + "    <style name=\"AppTheme\">\n"
+                        + "        <item name=\"compatTextViewStyle\">@style/Outline</item>\n"
+                        + "    </style>\n"
+                        + "    <style name=\"Outline\">\n"
+                        + "        <item name=\"ctv_strokeWidth\">1dp</item>\n"
+                        + "    </style>\n"
+                        + "</resources>"))
+                .issues(CompatTextViewDetector.REDUNDANT_ATTRIBUTE)
+                .run()
+                .expectClean();
+    }
+
+    public void testUniformGradient() {
+        lint().files(layout(""
+                + "        app:ctv_gradientStartColor=\"#F00\"\n"
+                + "        app:ctv_gradientEndColor=\"#F00\"\n"
+                + "        app:ctv_gradientStartPressedColor=\"#F00\"\n"
+                + "        app:ctv_gradientEndPressedColor=\"#0F0\""))
+                .issues(CompatTextViewDetector.UNIFORM_GRADIENT)
+                .run()
+                .expectWarningCount(1);
+    }
+
+    public void testRippleNotClickable() {
+        lint().files(layout(""
+                + "        app:ctv_solidColor=\"#FFF\"\n"
+                + "        app:ctv_solidPressedColor=\"#EEE\""))
+                .issues(CompatTextViewDetector.RIPPLE_NOT_CLICKABLE)
+                .run()
+                .expectWarningCount(1);
+    }
+
+    public void testRippleClickable() {
+        lint().files(layout(""
+                + "        android:id=\"@+id/title\"\n"
+                + "        app:ctv_solidColor=\"#FFF\"\n"
+                + "        app:ctv_solidPressedColor=\"#EEE\""))
+                .issues(CompatTextViewDetector.RIPPLE_NOT_CLICKABLE)
+                .run()
+                .expectClean();
+    }
+
+    public void testRippleClickableFromStyle() {
+        lint().files(layout(""
+                + "        style=\"@style/Button\"\n"
+                + "        app:ctv_solidColor=\"#FFF\"\n"
+                + "        app:ctv_solidPressedColor=\"#EEE\""))
+                .issues(CompatTextViewDetector.RIPPLE_NOT_CLICKABLE)
+                .run()
+                .expectClean();
+    }
+
+    public void testIntrinsicSize() {
+        lint().files(layout(""
+                        + "        app:ctv_tintDrawableLeft=\"@drawable/ic_star\"\n"
+                        + "        app:ctv_tintDrawableLeftWidth=\"24dp\"\n"
+                        + "        app:ctv_tintDrawableLeftHeight=\"16dp\""),
+                xml("res/drawable/ic_star.xml", ""
+                        + "<vector xmlns:android=\"http://schemas.android.com/apk/res/android\"\n"
+                        + "    android:width=\"24dp\"\n"
+                        + "    android:height=\"24dp\"\n"
+                        + "    android:viewportWidth=\"24\"\n"
+                        + "    android:viewportHeight=\"24\">\n"
+                        + "    <path android:fillColor=\"#000\" android:pathData=\"M0,0h24v24h-24z\" />\n"
+                        + "</vector>"))
+                .issues(CompatTextViewDetector.INTRINSIC_SIZE)
+                .run()
+                .expectWarningCount(1);
+    }
+
+    private static TestFile layout(String attrs) {
+        return xml("res/layout/main.xml", ""
+                + "<LinearLayout xmlns:android=\"http://schemas.android.com/apk/res/android\"\n"
+                + "    xmlns:app=\"http://schemas.android.com/apk/res-auto\"\n"
+                + "    android:layout_width=\"match_parent\"\n"
+                + "    android:layout_height=\"match_parent\">\n"
+                + "    <" + CompatTextViewDetector.VIEW + "\n"
+                + "        android:layout_width=\"wrap_content\"\n"
+                + "        android:layout_height=\"wrap_content\"\n"
+                + attrs + " />\n"
+                + "</LinearLayout>");
+    }
+}